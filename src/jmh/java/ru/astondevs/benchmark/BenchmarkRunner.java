@@ -0,0 +1,104 @@
+package ru.astondevs.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Запуск: {@code mvn -Pjmh test-compile exec:exec}.
+ * Результаты (пропускная способность и gc.alloc.rate.norm от GCProfiler) пишутся в target/jmh/jmh-result.json
+ * и сравниваются с src/jmh/baseline/jmh-baseline.json. Базовая линия обновляется через -Djmh.updateBaseline=true,
+ * с -Djmh.failOnRegression=true запуск падает при ухудшении больше чем на jmh.threshold процентов
+ * или если для бенчмарка нет записи в базовой линии: новый бенчмарк добавляется вместе с обновлённой линией.
+ */
+public class BenchmarkRunner {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh/jmh-result.json"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "src/jmh/baseline/jmh-baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "10"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", BenchmarkRunner.class.getPackageName() + ".*"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        if (Boolean.getBoolean("jmh.updateBaseline")) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Базовая линия обновлена: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("Базовая линия " + baseline + " не найдена, сравнение пропущено");
+            return;
+        }
+
+        int regressions = compare(read(baseline), read(result), threshold);
+        if (regressions > 0) {
+            System.out.println(regressions + " бенчмарк(ов) с регрессией или без базовой линии");
+        }
+        if (regressions > 0 && Boolean.getBoolean("jmh.failOnRegression")) {
+            System.exit(1);
+        }
+    }
+
+    private static int compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                // без базовой линии бенчмарк не проверяется вовсе, это такая же ошибка, как регрессия
+                regressions++;
+                System.out.printf("NO BASELINE %-60s обновите базовую линию: -Djmh.updateBaseline=true%n",
+                        entry.getKey());
+                continue;
+            }
+            Score after = entry.getValue();
+
+            double throughputChange = percent(before.throughput(), after.throughput());
+            double allocationChange = percent(before.allocation(), after.allocation());
+            boolean regressed = throughputChange < -threshold || (before.allocation() > 0 && allocationChange > threshold)
+                    || (before.allocation() == 0 && after.allocation() > 1);
+            if (regressed) regressions++;
+            System.out.printf("%s %-60s ops %+6.1f%%  alloc %.1f -> %.1f B/op%n",
+                    regressed ? "REGRESSION" : "ok        ", entry.getKey(), throughputChange,
+                    before.allocation(), after.allocation());
+        }
+        return regressions;
+    }
+
+    private static double percent(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new HashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(path.toFile())) {
+            JsonNode allocation = benchmark.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score");
+            scores.put(benchmark.path("benchmark").asText(), new Score(
+                    benchmark.path("primaryMetric").path("score").asDouble(),
+                    allocation.isMissingNode() ? 0 : allocation.asDouble()));
+        }
+        return scores;
+    }
+
+    private record Score(double throughput, double allocation) {
+    }
+}
@@ -0,0 +1,57 @@
+package ru.astondevs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.astondevs.controller.RoleController;
+import ru.astondevs.controller.UserController;
+import ru.astondevs.controller.UserLinkFactory;
+import ru.astondevs.dto.UserDto;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// сборка EntityModel с теми же ссылками, что отдаёт UserController для одного пользователя
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HateoasBenchmark {
+    private final UserLinkFactory linkFactory = new UserLinkFactory();
+    private UserDto userDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userDto = UserFixtures.userDto();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<UserDto> assembleUserModel() {
+        Long id = userDto.getId();
+        return EntityModel.of(userDto,
+                linkTo(methodOn(UserController.class).getUser(id, null)).withSelfRel(),
+                linkTo(methodOn(UserController.class).updateUser(id, userDto, null)).withRel("update"),
+                linkTo(methodOn(UserController.class).deleteUser(id, null)).withRel("delete"),
+                linkTo(methodOn(RoleController.class).getRole(userDto.getRole_id())).withRel("role"));
+    }
+
+    @Benchmark
+    public EntityModel<UserDto> assembleUserModelFromTemplates() {
+        return linkFactory.toModel(userDto);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.astondevs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.enums.EventType;
+import ru.astondevs.entity.Role;
+import ru.astondevs.entity.User;
+import ru.astondevs.util.PropertyCopier;
+import ru.astondevs.util.UserMapper;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    private static final PropertyCopier<User, User> UPDATE_COPIER =
+            PropertyCopier.of(User.class, User.class).ignoring("id");
+
+    private final UserMapper mapper = new UserMapper();
+    private Role role;
+    private User user;
+    private UserDto userDto;
+    private User target;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        role = UserFixtures.role();
+        user = UserFixtures.user();
+        userDto = UserFixtures.userDto();
+        target = UserFixtures.user();
+    }
+
+    @Benchmark
+    public User convertDtoToEntity() {
+        return mapper.convertDtoToEntity(userDto, role);
+    }
+
+    @Benchmark
+    public UserDto convertEntityToDto() {
+        return mapper.convertEntityToDto(user);
+    }
+
+    @Benchmark
+    public UserEventDto convertEntityToEventDto() {
+        return mapper.convertEntityToEventDto(user, EventType.CREATED);
+    }
+
+    // копировщик ищется в кеше на каждый вызов, исключаемые поля передаются списком
+    @Benchmark
+    public User copyNonNullProperties() {
+        PropertyCopier.of(User.class, User.class).copyNonNull(user, target, "id");
+        return target;
+    }
+
+    @Benchmark
+    public User copyNonNullPrecompiledPlan() {
+        UPDATE_COPIER.copyNonNull(user, target);
+        return target;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.astondevs.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.enums.EventType;
+import ru.astondevs.util.UserMapper;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    // та же базовая конфигурация, что у ObjectMapper в Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private UserDto userDto;
+    private UserEventDto userEventDto;
+    private byte[] userDtoJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        userDto = UserFixtures.userDto();
+        userEventDto = new UserMapper().convertEntityToEventDto(UserFixtures.user(), EventType.CREATED);
+        userDtoJson = objectMapper.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public byte[] writeUserDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public byte[] writeUserEventDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userEventDto);
+    }
+
+    @Benchmark
+    public UserDto readUserDto() throws Exception {
+        return objectMapper.readValue(userDtoJson, UserDto.class);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.astondevs.benchmark;
+
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.entity.Role;
+import ru.astondevs.entity.User;
+
+final class UserFixtures {
+    private UserFixtures() {
+    }
+
+    static Role role() {
+        Role role = new Role("user");
+        role.setId(2L);
+        return role;
+    }
+
+    static User user() {
+        return new User(1_234_567_890_123L, "Иван Иванов", "ivan@example.com", 30, role());
+    }
+
+    static UserDto userDto() {
+        return new UserDto(1_234_567_890_123L, "Иван Иванов", "ivan@example.com", 30, 2L);
+    }
+}
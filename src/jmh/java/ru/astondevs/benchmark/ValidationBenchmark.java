@@ -0,0 +1,32 @@
+package ru.astondevs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.astondevs.entity.User;
+import ru.astondevs.util.validation.EntityValidator;
+
+import java.util.concurrent.TimeUnit;
+
+// проверка, которую UserServiceImpl выполняет перед каждой записью пользователя
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final EntityValidator<User> VALIDATOR = EntityValidator.forClass(User.class);
+
+    private User user;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        user = UserFixtures.user();
+    }
+
+    @Benchmark
+    public void validateValidUser(Blackhole blackhole) {
+        VALIDATOR.validate(user);
+        blackhole.consume(user);
+    }
+}
@@ -2,9 +2,11 @@ package ru.astondevs;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC-пул для /api/v2/users создаётся в ReactiveReadConfig, автоконфигурация отключила бы JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableScheduling
 public class App {
     public static void main(String[] args) {
@@ -77,15 +77,15 @@ public class ConsoleController {
 
     private void handleUpdate() {
         if (consoleHelper.isNull(user, "Пользователь не создан!")) return;
-        int updateId = consoleHelper.readValidInt("Введите id пользователя: ");
-        UserDto userUpdated = userService.update((long) updateId, user);
+        long updateId = consoleHelper.readValidLong("Введите id пользователя: ");
+        UserDto userUpdated = userService.update(updateId, user);
         System.out.print("Пользователь " + userUpdated.getName() + " обновлен!\n");
         user = null;
     }
 
     private void handleDelete() {
-        int deleteId = consoleHelper.readValidInt("Введите id пользователя: ");
-        userService.delete((long) deleteId);
+        long deleteId = consoleHelper.readValidLong("Введите id пользователя: ");
+        userService.delete(deleteId);
         System.out.print("Пользователь удален!\n");
     }
 
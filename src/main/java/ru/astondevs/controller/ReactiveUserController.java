@@ -0,0 +1,88 @@
+package ru.astondevs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.util.ETags;
+
+import static ru.astondevs.controller.UserController.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Чтение пользователей без блокировки потоков Tomcat: запрос отпускает рабочий поток,
+ * пока R2DBC-драйвер ждёт PostgreSQL, ответ дописывается асинхронно. Запись остаётся в /api/users.
+ */
+@RestController
+@RequestMapping("/api/v2/users")
+@Tag(name = "User v2", description = "Неблокирующее чтение пользователей")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @Operation(summary = "Получить пользователей постранично",
+            description = "Возвращает страницу пользователей в обычном JSON, курсор следующей страницы в nextCursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница пользователей успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    })
+    @GetMapping
+    public Mono<UserPageDto> getUsers(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return userService.findPage(after, limit);
+    }
+
+    @Operation(summary = "Получить пользователя по ID", description = "Возвращает пользователя по его идентификатору")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь успешно получен",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "304", description = "Версия из If-None-Match не изменилась"),
+            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> getUser(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            return userService.findVersion(id).flatMap(version -> ETags.matches(ifNoneMatch, version)
+                    ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).<UserDto>build())
+                    : findUser(id));
+        }
+        return findUser(id);
+    }
+
+    @Operation(summary = "Выгрузить всех пользователей",
+            description = "Потоково выгружает всех пользователей в формате NDJSON с учётом скорости чтения клиентом")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка пользователей",
+                    content = @Content(mediaType = APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = UserDto.class)))
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<UserDto> exportUsers() {
+        return userService.streamAll();
+    }
+
+    private Mono<ResponseEntity<UserDto>> findUser(Long id) {
+        return userService.findById(id)
+                .map(user -> ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user));
+    }
+}
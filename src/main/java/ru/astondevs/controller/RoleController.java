@@ -2,6 +2,7 @@ package ru.astondevs.controller;
 
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +29,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Tag(name = "Role", description = "API для работы с ролями пользователей")
 public class RoleController {
 
+    private static final CacheControl ROLES_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+
     private final RoleService roleService;
 
     public RoleController(RoleService roleService) {
@@ -40,7 +44,10 @@ public class RoleController {
                             schema = @Schema(implementation = RoleDto.class)))
     })
     @GetMapping
-    public CollectionModel<EntityModel<RoleDto>> getAllRole() {
+    public ResponseEntity<CollectionModel<EntityModel<RoleDto>>> getAllRole() {
+        // ETag берётся до списка: если снимок сменится между вызовами, клиент получит старый тег и при
+        // следующей проверке новое тело, а не закеширует новое тело под старым тегом
+        String eTag = roleService.findAllETag();
         List<RoleDto> roleDtoList = roleService.findAll();
 
         List<EntityModel<RoleDto>> rolesWithLinks = roleDtoList.stream()
@@ -50,8 +57,12 @@ public class RoleController {
                 ))
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(rolesWithLinks,
-                linkTo(methodOn(RoleController.class).getAllRole()).withSelfRel());
+        // при совпадении If-None-Match Spring сам ответит 304 без тела
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(ROLES_CACHE_CONTROL)
+                .body(CollectionModel.of(rolesWithLinks,
+                        linkTo(methodOn(RoleController.class).getAllRole()).withSelfRel()));
     }
 
     @Operation(summary = "Получить роль по ID", description = "Возвращает роль по её идентификатору")
@@ -1,14 +1,38 @@
 package ru.astondevs.controller;
 
-import org.springframework.hateoas.CollectionModel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.astondevs.dto.RoleReassignmentDto;
+import ru.astondevs.dto.UserBatchResultDto;
+import ru.astondevs.dto.UserBulkResultDto;
 import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.errors.EmailAlreadyExistsException;
+import ru.astondevs.errors.RoleNotFoundedException;
 import ru.astondevs.service.UserService;
+import ru.astondevs.util.ETags;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,33 +49,72 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Tag(name = "User", description = "API для работы с пользователями")
 public class UserController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final String LINKS_NONE = "none";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserLinkFactory linkFactory;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper, UserLinkFactory linkFactory) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.linkFactory = linkFactory;
     }
 
-    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей")
+    @Operation(summary = "Получить пользователей постранично",
+            description = "Возвращает страницу пользователей, отсортированных по ID. " +
+                    "Для следующей страницы передайте курсор из ссылки next. " +
+                    "С links=none возвращается обычный JSON без HAL-ссылок")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен",
+            @ApiResponse(responseCode = "200", description = "Страница пользователей успешно получена",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserDto.class)))
+                            schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор")
     })
     @GetMapping
-    public CollectionModel<EntityModel<UserDto>> getAllUsers() {
-        List<UserDto> userDtoList = userService.findAll();
-
-        List<EntityModel<UserDto>> usersWithLinks = userDtoList.stream()
-                .map(user -> EntityModel.of(user,
-                        linkTo(methodOn(UserController.class).getUser(user.getId())).withSelfRel(),
-                        linkTo(methodOn(UserController.class).updateUser(user.getId(), user)).withRel("update"),
-                        linkTo(methodOn(UserController.class).deleteUser(user.getId())).withRel("delete"),
-                        linkTo(methodOn(RoleController.class).getRole(user.getRole_id())).withRel("role")
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "links", required = false) String links) {
+        UserPageDto page = userService.findPage(after, limit);
+        if (LINKS_NONE.equals(links)) {
+            // для машинных клиентов: обычный JSON без HAL-обёртки и ссылок
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+        }
+        return ResponseEntity.ok(linkFactory.toCollectionModel(page, after, limit));
+    }
 
-        return CollectionModel.of(usersWithLinks,
-                linkTo(methodOn(UserController.class).getAllUsers()).withSelfRel());
+    @Operation(summary = "Выгрузить всех пользователей",
+            description = "Потоково выгружает всех пользователей в формате NDJSON, по одному JSON-объекту в строке")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка пользователей",
+                    content = @Content(mediaType = APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = UserDto.class)))
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            BufferedOutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            userService.exportAll(user -> {
+                try {
+                    writer.writeValue(out, user);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
     }
 
     @Operation(summary = "Получить пользователя по ID", description = "Возвращает пользователя по его идентификатору")
@@ -59,19 +122,34 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Пользователь успешно получен",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "304", description = "Версия из If-None-Match не изменилась"),
             @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден")
     })
     @GetMapping("/{id}")
-    public EntityModel<UserDto> getUser(@PathVariable("id") Long id) {
+    public ResponseEntity<EntityModel<UserDto>> getUser(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = userService.findVersion(id);
+            if (ETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+        }
         UserDto user = userService.findById(id);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(linkFactory.toModel(user));
+    }
 
-        EntityModel<UserDto> resource = EntityModel.of(user);
-        resource.add(linkTo(methodOn(UserController.class).getUser(id)).withSelfRel());
-        resource.add(linkTo(methodOn(UserController.class).updateUser(id, user)).withRel("update"));
-        resource.add(linkTo(methodOn(UserController.class).deleteUser(id)).withRel("delete"));
-        resource.add(linkTo(methodOn(RoleController.class).getRole(user.getRole_id())).withRel("role"));
-
-        return resource;
+    @Operation(summary = "Получить пользователя по email", description = "Возвращает пользователя по email без учёта регистра")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь успешно получен",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "404", description = "Пользователь с таким email не найден")
+    })
+    @GetMapping("/by-email")
+    public EntityModel<UserDto> getUserByEmail(@RequestParam("email") String email) {
+        UserDto user = userService.findByEmail(email);
+        return linkFactory.toModel(user);
     }
 
     @Operation(summary = "Создать нового пользователя", description = "Создает нового пользователя с заданными параметрами")
@@ -85,33 +163,172 @@ public class UserController {
     public EntityModel<UserDto> createUser(@RequestBody UserDto userDto) {
         UserDto saved = userService.save(userDto);
         EntityModel<UserDto> resource = EntityModel.of(saved);
-        resource.add(linkTo(methodOn(UserController.class).getUser(saved.getId())).withSelfRel());
+        resource.add(linkTo(methodOn(UserController.class).getUser(saved.getId(), null)).withSelfRel());
         return resource;
     }
 
+    @Operation(summary = "Создать пользователей пакетом",
+            description = "Принимает JSON-массив пользователей и возвращает результат создания для каждого элемента. " +
+                    "На некорректном элементе разбор останавливается: в ответе результаты предыдущих элементов " +
+                    "и ошибка на его позиции")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserBatchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Тело запроса не является JSON-массивом")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<UserBatchResultDto>> createUsers(InputStream body) throws IOException {
+        List<UserBatchResultDto> results = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Ожидался JSON-массив пользователей");
+            }
+            List<UserDto> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            while (true) {
+                UserDto user;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) break;
+                    user = parser.readValueAs(UserDto.class);
+                } catch (JsonProcessingException e) {
+                    // предыдущие пакеты уже сохранены: клиент получает их результаты и ошибку на позиции,
+                    // после которой разбор невозможен
+                    flushChunk(chunk, results);
+                    results.add(failedAt(results.size(),
+                            "Некорректный элемент массива, остальные элементы не обработаны: " + e.getOriginalMessage()));
+                    break;
+                }
+                if (user == null) {
+                    flushChunk(chunk, results);
+                    results.add(failedAt(results.size(), "Элемент массива равен null"));
+                    continue;
+                }
+                chunk.add(user);
+                if (chunk.size() == BATCH_CHUNK_SIZE) flushChunk(chunk, results);
+            }
+            flushChunk(chunk, results);
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    private void flushChunk(List<UserDto> chunk, List<UserBatchResultDto> results) {
+        if (chunk.isEmpty()) return;
+        results.addAll(saveChunk(chunk, results.size()));
+        chunk.clear();
+    }
+
+    private static UserBatchResultDto failedAt(int index, String error) {
+        UserBatchResultDto result = UserBatchResultDto.failed(error);
+        result.setIndex(index);
+        return result;
+    }
+
+    private List<UserBatchResultDto> saveChunk(List<UserDto> chunk, int offset) {
+        List<UserBatchResultDto> results;
+        try {
+            results = userService.saveBatch(chunk);
+        } catch (EmailAlreadyExistsException | RoleNotFoundedException | DataIntegrityViolationException e) {
+            // конфликт при вставке откатил весь пакет: повторяем построчно, корректные строки создаются,
+            // остальные получают свою ошибку
+            results = chunk.stream().map(this::saveSingle).toList();
+        } catch (RuntimeException e) {
+            results = chunk.stream().map(user -> UserBatchResultDto.failed(e.getMessage())).toList();
+        }
+        for (int i = 0; i < results.size(); i++) {
+            results.get(i).setIndex(offset + i);
+        }
+        return results;
+    }
+
+    private UserBatchResultDto saveSingle(UserDto userDto) {
+        try {
+            return UserBatchResultDto.created(userService.save(userDto).getId());
+        } catch (RuntimeException e) {
+            return UserBatchResultDto.failed(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Удалить пользователя", description = "Удаляет пользователя по его идентификатору")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Пользователь успешно удален"),
-            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден")
+            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден"),
+            @ApiResponse(responseCode = "412", description = "Версия из If-Match не совпадает с текущей")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable("id") Long id) {
-        userService.delete(id);
+    public ResponseEntity<Void> deleteUser(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch, () -> userService.findVersion(id));
+        userService.delete(id, expectedVersion);
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Удалить пользователей списком",
+            description = "Удаляет пользователей с переданными ID одним запросом к базе. " +
+                    "Отсутствующие ID пропускаются, в ответе — число удалённых")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи удалены",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserBulkResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Список ID пуст или слишком велик")
+    })
+    @DeleteMapping(params = "ids")
+    public UserBulkResultDto deleteUsers(@RequestParam("ids") List<Long> ids) {
+        return new UserBulkResultDto(userService.deleteAll(ids));
+    }
+
+    @Operation(summary = "Перевести пользователей в другую роль",
+            description = "Меняет роль всем пользователям с from_role_id одним запросом к базе")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Роль пользователей изменена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserBulkResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Роль не найдена или не указана")
+    })
+    @PostMapping(value = "/reassign-role", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public UserBulkResultDto reassignRole(@RequestBody RoleReassignmentDto reassignment) {
+        return new UserBulkResultDto(userService.reassignRole(reassignment.getFrom_role_id(),
+                reassignment.getTo_role_id()));
+    }
+
     @Operation(summary = "Обновить пользователя", description = "Обновляет данные пользователя по его идентификатору")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь успешно обновлен",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserDto.class))),
             @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
-            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден")
+            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден"),
+            @ApiResponse(responseCode = "412", description = "Версия из If-Match не совпадает с текущей")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<UserDto> updateUser(@PathVariable("id") Long id, @RequestBody UserDto userDto) {
-        UserDto updated = userService.update(id, userDto);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<UserDto> updateUser(
+            @PathVariable("id") Long id,
+            @RequestBody UserDto userDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch, () -> userService.findVersion(id));
+        UserDto updated = userService.update(id, userDto, expectedVersion);
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+    }
+
+    @Operation(summary = "Частично обновить пользователя",
+            description = "Применяет JSON Merge Patch (RFC 7396): изменяются только переданные поля. " +
+                    "Если значения совпадают с текущими, запись и событие не выполняются")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь обновлен или уже находится в нужном состоянии",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный патч"),
+            @ApiResponse(responseCode = "404", description = "Пользователь с таким ID не найден"),
+            @ApiResponse(responseCode = "412", description = "Версия из If-Match не совпадает с текущей")
+    })
+    @PatchMapping(value = "/{id}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<UserDto> patchUser(
+            @PathVariable("id") Long id,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch, () -> userService.findVersion(id));
+        UserDto patched = userService.patch(id, patch, expectedVersion);
+        return ResponseEntity.ok().eTag(ETags.of(patched.getVersion())).body(patched);
     }
 }
 
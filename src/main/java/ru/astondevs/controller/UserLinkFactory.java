@@ -0,0 +1,105 @@
+package ru.astondevs.controller;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Ссылки пользователя строятся по шаблонам: linkTo(methodOn(...)) вызывается один раз на базовый URI запроса,
+ * дальше для каждого элемента в готовую строку подставляется только id.
+ */
+@Component
+public class UserLinkFactory {
+    public static final LinkRelation UPDATE = LinkRelation.of("update");
+    public static final LinkRelation DELETE = LinkRelation.of("delete");
+    public static final LinkRelation ROLE = LinkRelation.of("role");
+
+    // заведомо несуществующий id, по которому шаблон делится на префикс и суффикс
+    private static final long ID_PLACEHOLDER = Long.MIN_VALUE;
+    private static final int MAX_CACHED_BASES = 64;
+
+    private final Map<String, Templates> templatesByBase = new ConcurrentHashMap<>();
+
+    public EntityModel<UserDto> toModel(UserDto user) {
+        return templates().toModel(user);
+    }
+
+    public CollectionModel<EntityModel<UserDto>> toCollectionModel(UserPageDto page, String after, Integer limit) {
+        Templates templates = templates();
+        List<EntityModel<UserDto>> models = new ArrayList<>(page.getUsers().size());
+        for (UserDto user : page.getUsers()) {
+            models.add(templates.toModel(user));
+        }
+        CollectionModel<EntityModel<UserDto>> resource = CollectionModel.of(models,
+                Link.of(templates.pageHref(after, limit), IanaLinkRelations.SELF));
+        if (page.getNextCursor() != null) {
+            resource.add(Link.of(templates.pageHref(page.getNextCursor(), limit), IanaLinkRelations.NEXT));
+        }
+        return resource;
+    }
+
+    private Templates templates() {
+        // базовый URI зависит от хоста и контекста запроса, поэтому шаблоны кешируются по нему
+        String base = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+        Templates templates = templatesByBase.get(base);
+        if (templates != null) return templates;
+        if (templatesByBase.size() >= MAX_CACHED_BASES) templatesByBase.clear();
+        return templatesByBase.computeIfAbsent(base, key -> resolve());
+    }
+
+    private static Templates resolve() {
+        UserDto placeholder = new UserDto();
+        return new Templates(
+                IdTemplate.of(linkTo(methodOn(UserController.class).getUser(ID_PLACEHOLDER, null)).toUri().toString()),
+                IdTemplate.of(linkTo(methodOn(UserController.class).updateUser(ID_PLACEHOLDER, placeholder, null)).toUri().toString()),
+                IdTemplate.of(linkTo(methodOn(UserController.class).deleteUser(ID_PLACEHOLDER, null)).toUri().toString()),
+                IdTemplate.of(linkTo(methodOn(RoleController.class).getRole(ID_PLACEHOLDER)).toUri().toString()),
+                linkTo(UserController.class).toUri().toString());
+    }
+
+    private record Templates(IdTemplate self, IdTemplate update, IdTemplate delete, IdTemplate role,
+                             String collection) {
+        EntityModel<UserDto> toModel(UserDto user) {
+            return EntityModel.of(user,
+                    Link.of(self.expand(user.getId()), IanaLinkRelations.SELF),
+                    Link.of(update.expand(user.getId()), UPDATE),
+                    Link.of(delete.expand(user.getId()), DELETE),
+                    Link.of(role.expand(user.getRole_id()), ROLE));
+        }
+
+        String pageHref(String after, Integer limit) {
+            UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(collection);
+            if (after != null) builder.queryParam("after", after);
+            if (limit != null) builder.queryParam("limit", limit);
+            return builder.toUriString();
+        }
+    }
+
+    private record IdTemplate(String prefix, String suffix) {
+        static IdTemplate of(String href) {
+            String placeholder = Long.toString(ID_PLACEHOLDER);
+            int index = href.indexOf(placeholder);
+            if (index < 0) throw new IllegalStateException("Не удалось построить шаблон ссылки из " + href);
+            return new IdTemplate(href.substring(0, index), href.substring(index + placeholder.length()));
+        }
+
+        String expand(Long id) {
+            return prefix + id + suffix;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package ru.astondevs.dao;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
 import ru.astondevs.entity.User;
 import ru.astondevs.errors.UserNotFoundedException;
 
@@ -12,6 +14,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static ru.astondevs.util.ConnectionManager.executeInTransaction;
+import static ru.astondevs.util.ConnectionManager.executeReadOnly;
 
 public class UserDao {
     private final static UserDao INSTANCE = new UserDao();
@@ -57,10 +60,11 @@ public class UserDao {
 
     public List<User> findAll() {
         try {
-            List<User> users = executeInTransaction(session -> {
+            List<User> users = executeReadOnly(session -> {
                 CriteriaBuilder cb = session.getCriteriaBuilder();
                 CriteriaQuery<User> cq = cb.createQuery(User.class);
                 Root<User> root = cq.from(User.class);
+                root.fetch("role", JoinType.LEFT);
                 cq.select(root);
                 return session.createQuery(cq).getResultList();
             });
@@ -74,8 +78,8 @@ public class UserDao {
 
     public User findById(Long id) {
         try {
-            User user = executeInTransaction(session -> {
-                return session.find(User.class, id);
+            User user = executeReadOnly(session -> {
+                return findWithRole(session, id);
             });
 
             if (user == null) {
@@ -94,7 +98,7 @@ public class UserDao {
     public User update(Long id, User user) {
         try {
             User userUpdated = executeInTransaction(session -> {
-                User userOld = session.find(User.class, id);
+                User userOld = findWithRole(session, id);
                 if (userOld == null) {
                     log.warning("Пользователь с id " + id + " не найден для обновления");
                     throw new UserNotFoundedException("User with id " + id + " not found");
@@ -115,4 +119,11 @@ public class UserDao {
             throw e;
         }
     }
+
+    // сессия закрывается до возврата, поэтому ленивая роль загружается сразу тем же запросом
+    private static User findWithRole(Session session, Long id) {
+        return session.createQuery("select u from User u left join fetch u.role where u.id = :id", User.class)
+                .setParameter("id", id)
+                .uniqueResult();
+    }
 }
@@ -1,22 +1,37 @@
 package ru.astondevs.discoveryclient;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@EnableScheduling
 public class DiscoveryClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // отдельный поток: запросы к реестру не занимают общий планировщик @Scheduled
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "discovery-client");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // HttpClient держит keep-alive соединения с реестром и не блокирует поток на время запроса
+    private final HttpClient httpClient;
 
     @Value("${discovery.server.url}")
     private String discoveryServerUrl;
@@ -30,45 +45,175 @@ public class DiscoveryClient {
     private final String instanceId = UUID.randomUUID().toString();
     private String instanceUrl;
 
+    private final InstanceLoadMonitor loadMonitor;
+    private final InstanceLoadProperties loadProperties;
+    private final OverloadDetector overloadDetector;
+    private final DiscoveryClientProperties properties;
+    private final HeartbeatSchedule schedule;
+    private final ObjectMapper objectMapper;
+    private volatile boolean registered;
+    private volatile boolean stopped;
+    private volatile ScheduledFuture<?> nextTick;
+
+    public DiscoveryClient(InstanceLoadMonitor loadMonitor, InstanceLoadProperties loadProperties,
+                           DiscoveryClientProperties properties, ObjectMapper objectMapper) {
+        this.loadMonitor = loadMonitor;
+        this.loadProperties = loadProperties;
+        this.overloadDetector = new OverloadDetector(loadProperties);
+        this.properties = properties;
+        this.schedule = new HeartbeatSchedule(properties);
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(scheduler)
+                .build();
+    }
+
+    // регистрация не блокирует запуск: при недоступном реестре повторяется с паузой, как и heartbeat
     @PostConstruct
-    public void register() {
+    public void start() {
         instanceUrl = "http://" + serviceName + ":" + port;
+        nextTick = scheduler.schedule(this::tick, 0, TimeUnit.MILLISECONDS);
+    }
+
+    // следующий цикл планируется только после ответа, поэтому запросы к реестру не накладываются друг на друга
+    private void tick() {
+        if (stopped) return;
+        CompletableFuture<Boolean> step;
+        try {
+            InstanceLoad load = loadMonitor.snapshot();
+            boolean draining = overloadDetector.update(load);
+            if (draining && loadProperties.getDrainMode() == InstanceLoadProperties.DrainMode.DEREGISTER) {
+                step = registered ? leaveRegistry(load) : CompletableFuture.completedFuture(true);
+            } else if (!registered) {
+                step = register();
+            } else {
+                step = sendHeartbeat(load, draining);
+            }
+        } catch (Exception e) {
+            step = CompletableFuture.failedFuture(e);
+        }
+        step.exceptionally(e -> {
+            System.err.println("[DiscoveryClient] Request failed: " + e.getMessage());
+            return false;
+        }).thenAccept(this::scheduleNext);
+    }
+
+    private void scheduleNext(boolean success) {
+        if (stopped) return;
+        long delay = schedule.nextDelayMillis(success);
+        if (!success) System.err.println("[DiscoveryClient] Retrying in " + delay + " ms");
+        nextTick = scheduler.schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<Boolean> register() {
         Map<String, Object> body = new HashMap<>();
         body.put("serviceName", serviceName);
         body.put("instanceId", instanceId);
         body.put("url", instanceUrl);
-        body.put("ttlSeconds", 30);
+        body.put("ttlSeconds", properties.getTtlSeconds());
 
-        try {
-            restTemplate.postForEntity(discoveryServerUrl + "/services/register", body, Void.class);
+        return send(post("/services/register", body)).thenApply(status -> {
+            if (!isSuccess(status)) {
+                System.err.println("[DiscoveryClient] Failed to register: HTTP " + status);
+                return false;
+            }
+            registered = true;
             System.out.println("[DiscoveryClient] Registered: " + serviceName + " (" + instanceId + ")");
-        } catch (Exception e) {
-            System.err.println("[DiscoveryClient] Failed to register: " + e.getMessage());
-            throw new RuntimeException();
-        }
+            return true;
+        });
     }
 
-    @Scheduled(fixedDelay = 10000)
-    public void sendHeartbeat() {
-        Map<String, String> body = new HashMap<>();
+    private CompletableFuture<Boolean> sendHeartbeat(InstanceLoad load, boolean draining) {
+        Map<String, Object> body = new LinkedHashMap<>();
         body.put("instanceId", instanceId);
-        try {
-            restTemplate.postForEntity(discoveryServerUrl + "/services/heartbeat", body, Void.class);
-            System.out.println("[DiscoveryClient] Heartbeat sent: " + serviceName + " (" + instanceId + ")");
-        } catch (Exception e) {
-            System.err.println("[DiscoveryClient] Heartbeat failed: " + e.getMessage());
-            throw new RuntimeException();
-        }
+        body.put("status", draining ? "DRAINING" : "UP");
+        body.put("load", load);
+
+        return send(post("/services/heartbeat", body)).thenApply(status -> {
+            if (status == 404) {
+                // реестр успел забыть экземпляр по TTL, следующий цикл зарегистрирует его заново
+                System.err.println("[DiscoveryClient] Instance unknown to registry: " + instanceId);
+                registered = false;
+                return false;
+            }
+            if (!isSuccess(status)) {
+                System.err.println("[DiscoveryClient] Heartbeat failed: HTTP " + status);
+                return false;
+            }
+            System.out.println("[DiscoveryClient] Heartbeat sent: " + serviceName + " (" + instanceId + ") "
+                    + body.get("status") + " " + load);
+            return true;
+        });
+    }
+
+    private CompletableFuture<Boolean> leaveRegistry(InstanceLoad load) {
+        System.out.println("[DiscoveryClient] Overloaded, leaving registry: " + load);
+        return send(delete()).thenApply(status -> {
+            if (!isSuccess(status) && status != 404) {
+                System.err.println("[DiscoveryClient] Deregister failed: HTTP " + status);
+                return false;
+            }
+            registered = false;
+            System.out.println("[DiscoveryClient] Deregistered: " + serviceName);
+            return true;
+        });
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public boolean isDraining() {
+        return overloadDetector.isDraining();
     }
 
     @PreDestroy
-    public void deregister() {
+    public void shutdown() {
+        stopped = true;
+        ScheduledFuture<?> tick = nextTick;
+        if (tick != null) tick.cancel(false);
         try {
-            restTemplate.delete(discoveryServerUrl + "/services/deregister/" + instanceId);
-            System.out.println("[DiscoveryClient] Deregistered: " + serviceName);
+            if (registered) {
+                int status = send(delete()).get(properties.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                if (isSuccess(status)) {
+                    registered = false;
+                    System.out.println("[DiscoveryClient] Deregistered: " + serviceName);
+                } else {
+                    System.err.println("[DiscoveryClient] Deregister failed: HTTP " + status);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             System.err.println("[DiscoveryClient] Deregister failed: " + e.getMessage());
-            throw new RuntimeException();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(discoveryServerUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать запрос к реестру", e);
         }
     }
+
+    private HttpRequest.Builder delete() {
+        return HttpRequest.newBuilder(URI.create(discoveryServerUrl + "/services/deregister/" + instanceId)).DELETE();
+    }
+
+    private CompletableFuture<Integer> send(HttpRequest.Builder request) {
+        return httpClient.sendAsync(request.timeout(properties.getRequestTimeout()).build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
 }
@@ -0,0 +1,9 @@
+package ru.astondevs.discoveryclient;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DiscoveryClientProperties.class)
+public class DiscoveryClientConfig {
+}
@@ -0,0 +1,23 @@
+package ru.astondevs.discoveryclient;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("discovery.client")
+public class DiscoveryClientProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // меньше интервала heartbeat: зависший реестр не должен задерживать следующий цикл
+    private Duration requestTimeout = Duration.ofSeconds(3);
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+    // интервал случайно растягивается или сжимается на эту долю, чтобы экземпляры не били в реестр одновременно
+    private double jitter = 0.2;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    // не больше TTL регистрации, иначе экземпляр выпадет из реестра во время ожидания
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    private int ttlSeconds = 30;
+}
@@ -0,0 +1,34 @@
+package ru.astondevs.discoveryclient;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+// задержка до следующего обращения к реестру: интервал с джиттером после успеха, экспоненциальная пауза после ошибок
+class HeartbeatSchedule {
+    private final DiscoveryClientProperties properties;
+    private final DoubleSupplier random;
+    private int failures;
+
+    HeartbeatSchedule(DiscoveryClientProperties properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    HeartbeatSchedule(DiscoveryClientProperties properties, DoubleSupplier random) {
+        this.properties = properties;
+        this.random = random;
+    }
+
+    long nextDelayMillis(boolean success) {
+        if (success) {
+            failures = 0;
+            double jitter = properties.getJitter();
+            return (long) (properties.getHeartbeatInterval().toMillis() * (1 - jitter + 2 * jitter * random.getAsDouble()));
+        }
+        failures++;
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long backoff = failures > 30 || initial << (failures - 1) > max ? max : initial << (failures - 1);
+        // половина паузы гарантирована, вторая случайна: после общего сбоя реестра экземпляры возвращаются вразнобой
+        return backoff / 2 + (long) (backoff / 2 * random.getAsDouble());
+    }
+}
@@ -0,0 +1,5 @@
+package ru.astondevs.discoveryclient;
+
+// нагрузка экземпляра за интервал между heartbeat, передаётся реестру для взвешивания балансировки
+public record InstanceLoad(int inFlightRequests, long p99LatencyMs, long poolWaitMs, double heapUsedRatio) {
+}
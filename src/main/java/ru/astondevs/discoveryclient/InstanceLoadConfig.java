@@ -0,0 +1,38 @@
+package ru.astondevs.discoveryclient;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(InstanceLoadProperties.class)
+public class InstanceLoadConfig {
+
+    // первым в цепочке, чтобы время ответа включало остальные фильтры
+    @Bean
+    public FilterRegistrationBean<InstanceLoadFilter> instanceLoadFilter(InstanceLoadMonitor monitor) {
+        FilterRegistrationBean<InstanceLoadFilter> registration =
+                new FilterRegistrationBean<>(new InstanceLoadFilter(monitor));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // время ожидания соединения HikariCP отдаёт только через MetricsTrackerFactory, заданную до старта пула
+    @Bean
+    public static BeanPostProcessor poolWaitTrackingPostProcessor(ObjectProvider<InstanceLoadMonitor> monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory(monitor.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
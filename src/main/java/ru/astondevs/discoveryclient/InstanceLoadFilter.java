@@ -0,0 +1,73 @@
+package ru.astondevs.discoveryclient;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class InstanceLoadFilter extends OncePerRequestFilter {
+    private final InstanceLoadMonitor monitor;
+
+    public InstanceLoadFilter(InstanceLoadMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        monitor.requestStarted();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            // асинхронный ответ (выгрузка, /api/v2) продолжается после выхода из фильтра
+            if (async) {
+                request.getAsyncContext().addListener(new CompletionListener(start));
+            } else {
+                monitor.requestFinished(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private class CompletionListener implements AsyncListener {
+        private final long start;
+        private boolean finished;
+
+        private CompletionListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void finish() {
+            if (finished) return;
+            finished = true;
+            monitor.requestFinished(System.nanoTime() - start);
+        }
+    }
+}
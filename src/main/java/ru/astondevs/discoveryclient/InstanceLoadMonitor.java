@@ -0,0 +1,92 @@
+package ru.astondevs.discoveryclient;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// собирает нагрузку между heartbeat: запросы в работе, p99 времени ответа, ожидание соединения из пула, занятость кучи
+@Component
+public class InstanceLoadMonitor implements MetricsTrackerFactory {
+    private static final int LATENCY_WINDOW = 4096;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // кольцевой буфер длительностей; при снимке берутся только записи, появившиеся после предыдущего снимка
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_WINDOW);
+    private final AtomicLong latencySequence = new AtomicLong();
+    private long snapshotSequence;
+
+    private final LongAdder poolWaitNanos = new LongAdder();
+    private final LongAdder poolAcquisitions = new LongAdder();
+
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+            .toList();
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void requestFinished(long durationNanos) {
+        inFlight.decrementAndGet();
+        long index = latencySequence.getAndIncrement();
+        latencies.set((int) (index % LATENCY_WINDOW), durationNanos);
+    }
+
+    public synchronized InstanceLoad snapshot() {
+        long end = latencySequence.get();
+        long start = Math.max(snapshotSequence, end - LATENCY_WINDOW);
+        snapshotSequence = end;
+        long[] window = new long[(int) (end - start)];
+        for (int i = 0; i < window.length; i++) window[i] = latencies.get((int) ((start + i) % LATENCY_WINDOW));
+
+        long acquisitions = poolAcquisitions.sumThenReset();
+        long waitNanos = poolWaitNanos.sumThenReset();
+        long poolWaitMs = acquisitions == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos / acquisitions);
+
+        return new InstanceLoad(inFlight.get(), TimeUnit.NANOSECONDS.toMillis(p99(window)), poolWaitMs,
+                heapUsedRatio());
+    }
+
+    // вызывается HikariCP на каждую выдачу соединения, см. InstanceLoadConfig
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                poolWaitNanos.add(elapsedAcquiredNanos);
+                poolAcquisitions.increment();
+            }
+        };
+    }
+
+    static long p99(long[] values) {
+        if (values.length == 0) return 0;
+        Arrays.sort(values);
+        return values[(int) Math.ceil(values.length * 0.99) - 1];
+    }
+
+    // занятость после последней сборки: мусор, который GC ещё не убрал, давлением на кучу не считается
+    private double heapUsedRatio() {
+        double ratio = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) ratio = Math.max(ratio, (double) usage.getUsed() / usage.getMax());
+        }
+        if (ratio > 0) return ratio;
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.astondevs.discoveryclient;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("discovery.load")
+public class InstanceLoadProperties {
+    private DrainMode drainMode = DrainMode.MARK;
+    private int maxInFlightRequests = 200;
+    private long maxP99LatencyMs = 2000;
+    private long maxPoolWaitMs = 500;
+    private double maxHeapUsedRatio = 0.9;
+    // перегрузка и восстановление подтверждаются несколькими heartbeat подряд, чтобы не мигать на всплесках
+    private int overloadHeartbeats = 2;
+    private int recoveryHeartbeats = 3;
+    // восстановление — когда все показатели ниже порога, умноженного на этот коэффициент
+    private double recoveryFactor = 0.8;
+
+    public enum DrainMode {
+        // экземпляр остаётся в реестре со статусом DRAINING
+        MARK,
+        // экземпляр снимается с регистрации и регистрируется снова после восстановления
+        DEREGISTER
+    }
+}
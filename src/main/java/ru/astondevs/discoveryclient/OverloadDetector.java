@@ -0,0 +1,38 @@
+package ru.astondevs.discoveryclient;
+
+// решает, перегружен ли экземпляр, с гистерезисом: вход и выход из перегрузки по разным порогам
+public class OverloadDetector {
+    private final InstanceLoadProperties properties;
+    private boolean draining;
+    private int streak;
+
+    public OverloadDetector(InstanceLoadProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized boolean update(InstanceLoad load) {
+        // условие смены состояния: перегрузка для рабочего экземпляра, восстановление для выведенного из работы
+        boolean switching = draining ? isBelow(load, properties.getRecoveryFactor()) : !isBelow(load, 1.0);
+        if (!switching) {
+            streak = 0;
+            return draining;
+        }
+        int required = draining ? properties.getRecoveryHeartbeats() : properties.getOverloadHeartbeats();
+        if (++streak >= required) {
+            draining = !draining;
+            streak = 0;
+        }
+        return draining;
+    }
+
+    public synchronized boolean isDraining() {
+        return draining;
+    }
+
+    private boolean isBelow(InstanceLoad load, double factor) {
+        return load.inFlightRequests() <= properties.getMaxInFlightRequests() * factor
+                && load.p99LatencyMs() <= properties.getMaxP99LatencyMs() * factor
+                && load.poolWaitMs() <= properties.getMaxPoolWaitMs() * factor
+                && load.heapUsedRatio() <= properties.getMaxHeapUsedRatio() * factor;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "RoleReassignmentDto", description = "Перевод всех пользователей одной роли в другую")
+public class RoleReassignmentDto {
+    @Schema(description = "ID текущей роли пользователей", example = "1", required = true)
+    private Long from_role_id;
+
+    @Schema(description = "ID новой роли", example = "2", required = true)
+    private Long to_role_id;
+}
@@ -0,0 +1,41 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(name = "UserBatchResultDto", description = "Результат создания одного пользователя из пакета")
+public class UserBatchResultDto {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "Позиция пользователя во входном массиве", example = "0")
+    private int index;
+
+    @Schema(description = "Статус: CREATED или FAILED", example = "CREATED")
+    private String status;
+
+    @Schema(description = "ID созданного пользователя", example = "1")
+    private Long id;
+
+    @Schema(description = "Причина ошибки", example = "Поле name пустое")
+    private String error;
+
+    public static UserBatchResultDto created(Long id) {
+        UserBatchResultDto result = new UserBatchResultDto();
+        result.setStatus(CREATED);
+        result.setId(id);
+        return result;
+    }
+
+    public static UserBatchResultDto failed(String error) {
+        UserBatchResultDto result = new UserBatchResultDto();
+        result.setStatus(FAILED);
+        result.setError(error);
+        return result;
+    }
+}
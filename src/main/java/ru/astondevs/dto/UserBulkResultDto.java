@@ -0,0 +1,17 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "UserBulkResultDto", description = "Результат массовой операции над пользователями")
+public class UserBulkResultDto {
+    @Schema(description = "Количество затронутых пользователей", example = "42")
+    private int affected;
+}
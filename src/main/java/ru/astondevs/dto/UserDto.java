@@ -1,5 +1,6 @@
 package ru.astondevs.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import org.springframework.stereotype.Component;
@@ -24,6 +25,10 @@ public class UserDto {
     @Schema(description = "ID роли пользователя", example = "1", required = true)
     private Long role_id;
 
+    // передаётся клиенту в заголовке ETag, а не в теле
+    @JsonIgnore
+    private Long version;
+
     public UserDto(String name, String email, int age, Long role_id) {
         this.name = name;
         this.email = email;
@@ -39,6 +44,12 @@ public class UserDto {
         this.role_id = role_id;
     }
 
+    // используется в JPQL-проекциях UserRepository
+    public UserDto(Long id, String name, String email, int age, Long role_id, Long version) {
+        this(id, name, email, age, role_id);
+        this.version = version;
+    }
+
     public UserDto() {}
 
     @Override
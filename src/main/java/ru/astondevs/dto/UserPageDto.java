@@ -0,0 +1,20 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "UserPageDto", description = "Страница пользователей для курсорной пагинации")
+public class UserPageDto {
+    @Schema(description = "Пользователи на странице")
+    private List<UserDto> users;
+
+    @Schema(description = "Курсор следующей страницы, null если страница последняя", example = "MTAw")
+    private String nextCursor;
+}
@@ -0,0 +1,36 @@
+package ru.astondevs.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.astondevs.dto.enums.EventType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// событие UPDATED несёт только изменившиеся поля, а не весь UserDto
+@Data
+@NoArgsConstructor
+public class UserUpdatedEventDto {
+    private Long id;
+    private String email;
+    private long version;
+    private String eventType = EventType.UPDATED.name();
+    private Map<String, Object> changes = new LinkedHashMap<>();
+
+    public UserUpdatedEventDto(Long id, String email, long version) {
+        this.id = id;
+        this.email = email;
+        this.version = version;
+    }
+
+    public boolean hasChanges() {
+        return !changes.isEmpty();
+    }
+
+    // более позднее изменение того же пользователя перекрывает значения полей и версию
+    public void merge(UserUpdatedEventDto later) {
+        changes.putAll(later.getChanges());
+        email = later.getEmail();
+        version = Math.max(version, later.getVersion());
+    }
+}
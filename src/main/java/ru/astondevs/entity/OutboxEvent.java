@@ -0,0 +1,54 @@
+package ru.astondevs.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import ru.astondevs.util.SnowflakeIdentifierGenerator;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox", schema = "public")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(generator = "snowflake")
+    @GenericGenerator(name = "snowflake", strategy = SnowflakeIdentifierGenerator.STRATEGY)
+    private Long id;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    private String topic;
+
+    @Column(name = "event_key")
+    private String eventKey;
+
+    private String payload;
+
+    @Column(name = "payload_type")
+    private String payloadType;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", aggregateId=" + aggregateId +
+                ", eventType='" + eventType + '\'' +
+                ", topic='" + topic + '\'' +
+                '}';
+    }
+}
@@ -2,12 +2,22 @@ package ru.astondevs.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import ru.astondevs.util.SecondLevelCacheProperties;
+import ru.astondevs.util.SnowflakeIdentifierGenerator;
 
 import java.util.Objects;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheProperties.ROLE_REGION)
+// ленивые ссылки User.role инициализируются пачками, а не по одному SELECT на пользователя
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 @Getter
@@ -16,7 +26,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public class Role {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "snowflake")
+    @GenericGenerator(name = "snowflake", strategy = SnowflakeIdentifierGenerator.STRATEGY)
     @Schema(description = "ID роли", example = "1", required = true)
     private Long id;
 
@@ -3,6 +3,15 @@ package ru.astondevs.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import ru.astondevs.util.SecondLevelCacheProperties;
+import ru.astondevs.util.SnowflakeIdentifierGenerator;
+import ru.astondevs.util.validation.EmailField;
+import ru.astondevs.util.validation.NotEmptyField;
+import ru.astondevs.util.validation.PositiveField;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -10,28 +19,42 @@ import java.util.Objects;
 @Data
 @Entity
 @Table(name = "users", schema = "public")
+@Cacheable
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheProperties.USER_REGION)
 @Getter
 @Setter
 @Schema(name = "User", description = "Сущность пользователя")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "snowflake")
+    @GenericGenerator(name = "snowflake", strategy = SnowflakeIdentifierGenerator.STRATEGY)
     @Schema(description = "ID пользователя", example = "1", required = true)
     private Long id;
 
+    @NotEmptyField
     @Schema(description = "Имя пользователя", example = "Иван Иванов", required = true)
     private String name;
 
+    @NotEmptyField
+    @EmailField
     @Schema(description = "Email пользователя", example = "ivan@example.com", required = true)
     private String email;
 
+    @PositiveField
     @Schema(description = "Возраст пользователя", example = "30", required = true)
     private int age;
 
+    @NotEmptyField
     @Schema(description = "Дата создания пользователя", example = "2025-10-23T15:30:00", required = true)
     private LocalDateTime create_at;
 
-    @ManyToOne
+    @Version
+    @Schema(description = "Версия пользователя для оптимистической блокировки", example = "0")
+    private Long version;
+
+    @NotEmptyField
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id")
     @Schema(description = "Роль пользователя")
     private Role role;
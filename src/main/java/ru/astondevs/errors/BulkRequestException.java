@@ -0,0 +1,7 @@
+package ru.astondevs.errors;
+
+public class BulkRequestException extends RuntimeException {
+    public BulkRequestException(String message) {
+        super(message);
+    }
+}
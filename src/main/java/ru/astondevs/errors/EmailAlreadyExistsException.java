@@ -0,0 +1,7 @@
+package ru.astondevs.errors;
+
+public class EmailAlreadyExistsException extends RuntimeException {
+    public EmailAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.astondevs.errors;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
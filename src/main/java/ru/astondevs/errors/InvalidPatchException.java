@@ -0,0 +1,7 @@
+package ru.astondevs.errors;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
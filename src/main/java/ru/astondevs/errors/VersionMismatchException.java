@@ -0,0 +1,7 @@
+package ru.astondevs.errors;
+
+public class VersionMismatchException extends RuntimeException {
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
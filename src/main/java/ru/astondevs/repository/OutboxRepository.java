@@ -0,0 +1,35 @@
+package ru.astondevs.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.astondevs.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED позволяет нескольким экземплярам разбирать outbox параллельно, не блокируя друг друга
+    @Query(value = "SELECT * FROM outbox WHERE published_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    // события моложе окна объединения остаются в outbox до следующего опроса
+    @Query(value = "SELECT * FROM outbox WHERE published_at IS NULL AND created_at < :before " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatchCreatedBefore(@Param("limit") int limit, @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
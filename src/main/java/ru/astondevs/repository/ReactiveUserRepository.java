@@ -0,0 +1,67 @@
+package ru.astondevs.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserDto;
+
+import java.util.function.Function;
+
+/**
+ * Неблокирующее чтение пользователей через R2DBC для /api/v2/users.
+ * Строки сразу отображаются в UserDto, сущности и контекст персистентности не используются.
+ */
+public class ReactiveUserRepository {
+    private static final String COLUMNS = "id, name, email, age, role_id, version";
+
+    private final ConnectionPool pool;
+    private final int fetchSize;
+
+    public ReactiveUserRepository(ConnectionPool pool, int fetchSize) {
+        this.pool = pool;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<UserDto> findById(Long id) {
+        return query("SELECT " + COLUMNS + " FROM users WHERE id = $1",
+                statement -> statement.bind(0, id), ReactiveUserRepository::toDto).next();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return query("SELECT version FROM users WHERE id = $1",
+                statement -> statement.bind(0, id), row -> row.get("version", Long.class)).next();
+    }
+
+    public Flux<UserDto> findPageAfter(long afterId, int limit) {
+        return query("SELECT " + COLUMNS + " FROM users WHERE id > $1 ORDER BY id LIMIT $2",
+                statement -> statement.bind(0, afterId).bind(1, limit), ReactiveUserRepository::toDto);
+    }
+
+    // строки читаются порциями по fetchSize с учётом backpressure подписчика
+    public Flux<UserDto> streamAll() {
+        return query("SELECT " + COLUMNS + " FROM users ORDER BY id",
+                statement -> statement.fetchSize(fetchSize), ReactiveUserRepository::toDto);
+    }
+
+    public void close() {
+        pool.dispose();
+    }
+
+    private <T> Flux<T> query(String sql, Function<Statement, Statement> binder, Function<Readable, T> mapper) {
+        return Flux.usingWhen(pool.create(),
+                connection -> Flux.from(binder.apply(connection.createStatement(sql)).execute())
+                        .flatMap(result -> result.map(mapper)),
+                Connection::close);
+    }
+
+    private static UserDto toDto(Readable row) {
+        Integer age = row.get("age", Integer.class);
+        UserDto user = new UserDto(row.get("id", Long.class), row.get("name", String.class),
+                row.get("email", String.class), age == null ? 0 : age, row.get("role_id", Long.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+}
@@ -1,9 +1,23 @@
 package ru.astondevs.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.astondevs.entity.Role;
 
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static ru.astondevs.util.SecondLevelCacheProperties.ROLE_QUERY_REGION;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ROLE_QUERY_REGION)
+    })
+    List<Role> findAll();
 }
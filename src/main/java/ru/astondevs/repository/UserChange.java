@@ -0,0 +1,7 @@
+package ru.astondevs.repository;
+
+import ru.astondevs.entity.User;
+
+// состояние пользователя до и после UPDATE ... RETURNING, обе стороны получены одним запросом
+public record UserChange(User before, User after) {
+}
@@ -1,12 +1,69 @@
 package ru.astondevs.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.astondevs.dto.UserDto;
 import ru.astondevs.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static ru.astondevs.util.SecondLevelCacheProperties.USER_QUERY_REGION;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findUserByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserWriteRepository {
+    // проекции читают колонки прямо в UserDto: без сущностей, снимков для dirty checking и join на role
+    String USER_DTO_SELECT = "select new ru.astondevs.dto.UserDto(u.id, u.name, u.email, u.age, u.role.id, u.version)"
+            + " from User u";
+
+    // условие совпадает с выражением индекса ux_users_email_lower;
+    // в регионе запросов кешируется только соответствие email -> id: его меняют лишь смена email и удаление,
+    // поэтому обычный UPDATE не сбрасывает регион
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERY_REGION)
+    })
+    @Query("select u.id from User u where lower(u.email) = lower(:email)")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    default Optional<UserDto> findDtoByEmail(String email) {
+        return findIdByEmail(email).flatMap(this::findDtoById);
+    }
+
+    // чтение по id идёт через кеш сущностей: запись вытесняет ровно изменённую строку
+    default Optional<UserDto> findDtoById(Long id) {
+        return findById(id).map(user -> new UserDto(user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                user.getRole() == null ? null : user.getRole().getId(), user.getVersion()));
+    }
+
+    @Query(USER_DTO_SELECT + " order by u.id")
+    List<UserDto> findAllDtos();
+
+    // занятые email пакета одним запросом по ux_users_email_lower; на вход — уже приведённые к нижнему регистру
+    @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // для проверки If-None-Match версия берётся из кеша сущностей, без отдельного кешируемого запроса
+    default Optional<Long> findVersionById(Long id) {
+        return findById(id).map(User::getVersion);
+    }
+
+    @Query(USER_DTO_SELECT + " where u.id > :afterId order by u.id")
+    List<UserDto> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // проекция не кладёт сущности ни в контекст персистентности, ни в кеш второго уровня
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(USER_DTO_SELECT + " order by u.id")
+    Stream<UserDto> streamAll();
 }
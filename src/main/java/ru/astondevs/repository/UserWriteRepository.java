@@ -0,0 +1,21 @@
+package ru.astondevs.repository;
+
+import ru.astondevs.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface UserWriteRepository {
+    // expectedVersion == null — изменение безусловное; пустой результат — нет строки с таким id и версией
+    // либо ни одна из колонок не отличается от текущего значения, тогда строка не перезаписывается
+    Optional<UserChange> updateReturning(Long id, Map<String, Object> columns, Long expectedVersion);
+
+    Optional<User> deleteReturning(Long id, Long expectedVersion);
+
+    // массовые операции выполняются одним запросом и возвращают затронутые строки для событий
+    List<User> deleteAllReturning(Collection<Long> ids);
+
+    List<User> reassignRoleReturning(Long fromRoleId, Long toRoleId);
+}
@@ -0,0 +1,195 @@
+package ru.astondevs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.astondevs.entity.Role;
+import ru.astondevs.entity.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static ru.astondevs.util.SecondLevelCacheProperties.USER_QUERY_REGION;
+
+public class UserWriteRepositoryImpl implements UserWriteRepository {
+    private static final Map<String, String> COLUMN_TYPES = Map.of(
+            "name", "VARCHAR",
+            "email", "VARCHAR",
+            "age", "INTEGER",
+            "role_id", "BIGINT");
+
+    private static final String DELETE_RETURNING = """
+            DELETE FROM users
+            WHERE id = :id
+              AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = CAST(:expectedVersion AS BIGINT))
+            RETURNING id, name, email, age, role_id, version, create_at
+            """;
+
+    private static final String DELETE_ALL_RETURNING = """
+            DELETE FROM users
+            WHERE id IN (:ids)
+            RETURNING id, name, email, age, role_id, version, create_at
+            """;
+
+    private static final String REASSIGN_ROLE_RETURNING = """
+            UPDATE users
+            SET role_id = :toRoleId, version = version + 1
+            WHERE role_id = :fromRoleId
+            RETURNING id, name, email, age, role_id, version, create_at
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<UserChange> updateReturning(Long id, Map<String, Object> columns, Long expectedVersion) {
+        if (columns.isEmpty()) return Optional.empty();
+        Query query = entityManager.createNativeQuery(updateReturningSql(columns.keySet()))
+                .setParameter("id", id)
+                .setParameter("expectedVersion", expectedVersion);
+        columns.forEach(query::setParameter);
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) return Optional.empty();
+        // email -> id меняется только при смене email; смена роли кешированные запросы не затрагивает
+        evictCached(List.of(id), columns.containsKey("email"));
+
+        Object[] row = (Object[]) rows.get(0);
+        User after = toUser(row);
+        User before = new User(after.getId(), (String) row[7], (String) row[8], toInt(row[9]), roleReference(row[10]));
+        before.setCreate_at(after.getCreate_at());
+        before.setVersion(after.getVersion() - 1);
+        return Optional.of(new UserChange(before, after));
+    }
+
+    @Override
+    public Optional<User> deleteReturning(Long id, Long expectedVersion) {
+        List<?> rows = entityManager.createNativeQuery(DELETE_RETURNING)
+                .setParameter("id", id)
+                .setParameter("expectedVersion", expectedVersion)
+                .getResultList();
+        if (rows.isEmpty()) return Optional.empty();
+        evictCached(List.of(id), true);
+        return Optional.of(toUser((Object[]) rows.get(0)));
+    }
+
+    @Override
+    public List<User> deleteAllReturning(Collection<Long> ids) {
+        List<?> rows = entityManager.createNativeQuery(DELETE_ALL_RETURNING)
+                .setParameter("ids", ids)
+                .getResultList();
+        return toUsersEvicting(rows, true);
+    }
+
+    @Override
+    public List<User> reassignRoleReturning(Long fromRoleId, Long toRoleId) {
+        List<?> rows = entityManager.createNativeQuery(REASSIGN_ROLE_RETURNING)
+                .setParameter("fromRoleId", fromRoleId)
+                .setParameter("toRoleId", toRoleId)
+                .getResultList();
+        return toUsersEvicting(rows, false);
+    }
+
+    private List<User> toUsersEvicting(List<?> rows, boolean queriesAffected) {
+        if (rows.isEmpty()) return List.of();
+        List<User> users = new ArrayList<>(rows.size());
+        for (Object row : rows) users.add(toUser((Object[]) row));
+        evictCached(users.stream().map(User::getId).toList(), queriesAffected);
+        return users;
+    }
+
+    // SET содержит только переданные колонки; подзапрос блокирует строку, отдаёт значения до изменения
+    // для дельты события и отсекает запрос, который ничего не меняет, — такая строка не перезаписывается
+    private static String updateReturningSql(Collection<String> columns) {
+        StringJoiner set = new StringJoiner(", ", "", ", ");
+        StringJoiner changed = new StringJoiner(" OR ", "(", ")");
+        for (String column : columns) {
+            String type = COLUMN_TYPES.get(column);
+            if (type == null) throw new IllegalArgumentException("Колонка " + column + " не изменяется");
+            String value = "CAST(:" + column + " AS " + type + ")";
+            set.add(column + " = " + value);
+            changed.add(column + " IS DISTINCT FROM " + value);
+        }
+        return "UPDATE users u SET " + set + "version = u.version + 1"
+                + " FROM (SELECT id, name, email, age, role_id FROM users"
+                + " WHERE id = :id"
+                + " AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = CAST(:expectedVersion AS BIGINT))"
+                + " AND " + changed
+                + " FOR UPDATE) old"
+                + " WHERE u.id = old.id"
+                + " RETURNING u.id, u.name, u.email, u.age, u.role_id, u.version, u.create_at,"
+                + " old.name, old.email, old.age, old.role_id";
+    }
+
+    private User toUser(Object[] row) {
+        User user = new User(toLong(row[0]), (String) row[1], (String) row[2], toInt(row[3]), roleReference(row[4]));
+        user.setVersion(toLong(row[5]));
+        user.setCreate_at(toLocalDateTime(row[6]));
+        return user;
+    }
+
+    // RETURNING исполняется как выборка, Hibernate не знает об изменении строк и сам кеш не инвалидирует:
+    // изменённые строки вытесняются сразу и повторно после завершения транзакции, потому что параллельное
+    // чтение могло положить в кеш старую версию до фиксации; регион запросов сбрасывается один раз на транзакцию
+    private void evictCached(Collection<Long> ids, boolean queriesAffected) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        for (Long id : ids) cache.evictEntityData(User.class, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (queriesAffected) cache.evictQueryRegion(USER_QUERY_REGION);
+            return;
+        }
+        PendingEviction pending = (PendingEviction) TransactionSynchronizationManager.getResource(PendingEviction.class);
+        if (pending == null) {
+            pending = new PendingEviction(cache);
+            TransactionSynchronizationManager.bindResource(PendingEviction.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.addAll(ids);
+        pending.queriesAffected |= queriesAffected;
+    }
+
+    private static final class PendingEviction implements TransactionSynchronization {
+        private final Cache cache;
+        private final Set<Long> ids = new HashSet<>();
+        private boolean queriesAffected;
+
+        private PendingEviction(Cache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingEviction.class);
+            for (Long id : ids) cache.evictEntityData(User.class, id);
+            if (queriesAffected) cache.evictQueryRegion(USER_QUERY_REGION);
+        }
+    }
+
+    private Role roleReference(Object roleId) {
+        return roleId == null ? null : entityManager.getReference(Role.class, toLong(roleId));
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime();
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.astondevs.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+
+public interface ReactiveUserService {
+    Mono<UserDto> findById(Long id);
+    Mono<Long> findVersion(Long id);
+    Mono<UserPageDto> findPage(String after, Integer limit);
+    Flux<UserDto> streamAll();
+}
@@ -2,6 +2,11 @@ package ru.astondevs.service;
 
 import ru.astondevs.entity.Role;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface RoleInternalService {
     Role findEntityById(Long id);
+    Map<Long, Role> findEntitiesByIds(Collection<Long> ids);
+    Role referenceById(Long id);
 }
@@ -8,5 +8,6 @@ public interface RoleService {
     RoleDto save(RoleDto roleDto);
     void delete(Long id);
     List<RoleDto> findAll();
+    String findAllETag();
     RoleDto findById(Long id);
 }
@@ -1,13 +1,28 @@
 package ru.astondevs.service;
 
+import ru.astondevs.dto.UserBatchResultDto;
 import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto save(UserDto userDto);
+    List<UserBatchResultDto> saveBatch(List<UserDto> users);
     void delete(Long id);
+    void delete(Long id, Long expectedVersion);
+    int deleteAll(Collection<Long> ids);
+    int reassignRole(Long fromRoleId, Long toRoleId);
     List<UserDto> findAll();
+    UserPageDto findPage(String after, Integer limit);
+    void exportAll(Consumer<UserDto> consumer);
     UserDto findById(Long id);
+    UserDto findByEmail(String email);
+    Long findVersion(Long id);
     UserDto update(Long id, UserDto user);
+    UserDto update(Long id, UserDto user, Long expectedVersion);
+    UserDto patch(Long id, Map<String, Object> patch, Long expectedVersion);
 }
@@ -0,0 +1,56 @@
+package ru.astondevs.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.errors.UserNotFoundedException;
+import ru.astondevs.repository.ReactiveUserRepository;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.util.CursorCodec;
+
+import java.util.List;
+
+import static ru.astondevs.service.impl.UserServiceImpl.DEFAULT_PAGE_SIZE;
+import static ru.astondevs.service.impl.UserServiceImpl.MAX_PAGE_SIZE;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private final ReactiveUserRepository repository;
+
+    public Mono<UserDto> findById(Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundedException("Пользователь c id " + id + " не найден")));
+    }
+
+    public Mono<Long> findVersion(Long id) {
+        return repository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundedException("Пользователь c id " + id + " не найден")));
+    }
+
+    public Mono<UserPageDto> findPage(String after, Integer limit) {
+        return Mono.fromCallable(() -> CursorCodec.decode(after))
+                .defaultIfEmpty(0L)
+                .flatMap(afterId -> {
+                    int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+                    // запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+                    return repository.findPageAfter(afterId, pageSize + 1)
+                            .collectList()
+                            .map(users -> toPage(users, pageSize));
+                });
+    }
+
+    public Flux<UserDto> streamAll() {
+        return repository.streamAll();
+    }
+
+    private static UserPageDto toPage(List<UserDto> users, int pageSize) {
+        boolean hasNext = users.size() > pageSize;
+        List<UserDto> page = hasNext ? users.subList(0, pageSize) : users;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+        return new UserPageDto(page, nextCursor);
+    }
+}
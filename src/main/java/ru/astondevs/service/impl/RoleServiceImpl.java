@@ -1,6 +1,15 @@
 package ru.astondevs.service.impl;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.astondevs.dto.RoleDto;
 import ru.astondevs.entity.Role;
 import ru.astondevs.errors.RoleNotFoundedException;
@@ -8,45 +17,137 @@ import ru.astondevs.repository.RoleRepository;
 import ru.astondevs.service.RoleInternalService;
 import ru.astondevs.service.RoleService;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 @Service
 public class RoleServiceImpl implements RoleService, RoleInternalService {
     private final RoleRepository repository;
-    private static final Logger log = Logger.getLogger(UserServiceImpl.class.getName());
+    private static final Logger log = Logger.getLogger(RoleServiceImpl.class.getName());
 
-    public RoleServiceImpl(RoleRepository repository) {
+    // неизменяемый снимок таблицы role, подменяется целиком при каждом изменении
+    private final AtomicReference<RoleSnapshot> snapshot = new AtomicReference<>();
+    // снимок читается в своей пишущей транзакции: она всегда идёт на primary, а read-only транзакция
+    // с отстающей реплики могла бы заменить снимок более старым
+    private final TransactionTemplate reloadTransaction;
+
+    public RoleServiceImpl(RoleRepository repository, PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
+    @Transactional
     public RoleDto save(RoleDto roleDto) {
         Role role = repository.save(new Role(roleDto.getName()));
+        refreshAfterCommit();
         return new RoleDto(role.getName());
     }
 
+    @Transactional
     public void delete(Long id) {
         Role role = findEntityById(id);
-        if (role == null) throw new RoleNotFoundedException("Роль c id " + id + " не найден");
         repository.delete(role);
+        refreshAfterCommit();
     }
 
     public List<RoleDto> findAll() {
-        List<Role> roleList = repository.findAll();
+        List<RoleDto> roleList = snapshot().roles();
         if (roleList.isEmpty()) throw new RoleNotFoundedException("Ролей нет в базе данных");
-        return roleList.stream().map(role -> new RoleDto(role.getId(),role.getName())).toList();
+        return roleList;
     }
 
-    public RoleDto findById(Long id) {
-        Role role = repository.findById(id)
-                .orElseThrow(() -> new RoleNotFoundedException("Роль c id " + id + " не найден"));
+    public String findAllETag() {
+        return snapshot().eTag();
+    }
 
-        return new RoleDto(role.getId(), role.getName());
+    public RoleDto findById(Long id) {
+        RoleDto role = snapshot().byId().get(id);
+        if (role == null) throw new RoleNotFoundedException("Роль c id " + id + " не найден");
+        return role;
     }
 
     public Role findEntityById(Long id) {
-        Role role = repository.findById(id)
-                .orElseThrow(() -> new RoleNotFoundedException("Роль c id " + id + " не найден"));
+        return toEntity(findById(id));
+    }
+
+    public Map<Long, Role> findEntitiesByIds(Collection<Long> ids) {
+        Map<Long, RoleDto> byId = snapshot().byId();
+        Map<Long, Role> roles = new HashMap<>();
+        for (Long id : ids) {
+            RoleDto role = byId.get(id);
+            if (role != null) roles.put(id, toEntity(role));
+        }
+        return roles;
+    }
+
+    // ссылка без SELECT: существование роли проверяет внешний ключ fk_user_role при вставке
+    public Role referenceById(Long id) {
+        return id == null ? null : repository.getReferenceById(id);
+    }
+
+    // synchronized: параллельные перезагрузки не подменят более свежий снимок тем, что прочитан раньше
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${user-service.roles.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        List<RoleDto> roles = reloadTransaction.execute(status -> repository.findAll().stream()
+                .map(role -> new RoleDto(role.getId(), role.getName()))
+                .toList());
+        snapshot.set(new RoleSnapshot(roles));
+        log.fine("Загружено ролей: " + roles.size());
+    }
+
+    // до commit изменение не видно другим транзакциям, поэтому снимок перечитывается после него
+    private void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    private RoleSnapshot snapshot() {
+        RoleSnapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    // сущность отдаётся копией, чтобы вызывающий код не мог изменить общий снимок
+    private static Role toEntity(RoleDto roleDto) {
+        Role role = new Role(roleDto.getName());
+        role.setId(roleDto.getId());
         return role;
     }
+
+    // ETag списка считается один раз на снимок, а не при каждом GET /api/role
+    private record RoleSnapshot(List<RoleDto> roles, Map<Long, RoleDto> byId, String eTag) {
+        RoleSnapshot(List<RoleDto> roles) {
+            this(roles, roles.stream().collect(Collectors.toUnmodifiableMap(RoleDto::getId, Function.identity())),
+                    eTag(roles));
+        }
+
+        private static String eTag(List<RoleDto> roles) {
+            CRC32 crc = new CRC32();
+            for (RoleDto role : roles) {
+                crc.update((role.getId() + ":" + role.getName() + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return Long.toHexString(crc.getValue());
+        }
+    }
 }
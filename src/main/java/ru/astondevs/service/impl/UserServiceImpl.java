@@ -1,96 +1,295 @@
 package ru.astondevs.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astondevs.dto.UserBatchResultDto;
 import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
 import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserUpdatedEventDto;
 import ru.astondevs.dto.enums.EventType;
 import ru.astondevs.entity.Role;
 import ru.astondevs.entity.User;
+import ru.astondevs.errors.BulkRequestException;
+import ru.astondevs.errors.EmailAlreadyExistsException;
 import ru.astondevs.errors.EmptyFieldException;
+import ru.astondevs.errors.RoleNotFoundedException;
 import ru.astondevs.errors.UserNotFoundedException;
+import ru.astondevs.errors.VersionMismatchException;
+import ru.astondevs.repository.UserChange;
 import ru.astondevs.repository.UserRepository;
 import ru.astondevs.service.RoleInternalService;
 import ru.astondevs.service.UserService;
-import ru.astondevs.util.BeanUtilsHelper;
-import ru.astondevs.util.KafkaEventPublisher;
+import ru.astondevs.util.CursorCodec;
+import ru.astondevs.util.OutboxWriter;
 import ru.astondevs.util.UserMapper;
+import ru.astondevs.util.validation.EntityValidator;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.astondevs.dto.enums.KafkaTopics.USER_EVENT;
 
 @Service
 @RequiredArgsConstructor
+// чтения идут в read-only транзакции: FlushMode.MANUAL, без снимков сущностей, Connection.setReadOnly(true);
+// методы записи переопределяют это своим @Transactional
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_SIZE = 1000;
+    private static final String EMAIL_UNIQUE_INDEX = "ux_users_email_lower";
+    private static final String ROLE_FOREIGN_KEY = "fk_user_role";
+    private static final EntityValidator<User> USER_VALIDATOR = EntityValidator.forClass(User.class);
+
     private final UserRepository repository;
     private final RoleInternalService roleService;
     private final UserMapper userMapper;
-    private final KafkaEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
 
 
+    @Transactional
     public UserDto save(UserDto userDto) {
-        Role role = roleService.findEntityById(userDto.getRole_id());
+        Role role = roleService.referenceById(userDto.getRole_id());
         User user = userMapper.convertDtoToEntity(userDto, role);
-        userFieldsValidation(user);
-        User userSaved = repository.save(user);
+        USER_VALIDATOR.validate(user);
+        User userSaved = translateViolations(() -> repository.saveAndFlush(user), user.getEmail(), userDto.getRole_id());
         UserEventDto userEventDto = userMapper.convertEntityToEventDto(userSaved, EventType.CREATED);
-        eventPublisher.publish(USER_EVENT.name, userEventDto.getEmail(), userEventDto);
+        outboxWriter.enqueue(USER_EVENT.name, userSaved.getId(), userEventDto.getEventType(), userEventDto);
         return userMapper.convertEntityToDto(userSaved);
     }
 
+    @Transactional
+    public List<UserBatchResultDto> saveBatch(List<UserDto> users) {
+        Set<Long> roleIds = users.stream()
+                .map(UserDto::getRole_id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Role> roles = roleService.findEntitiesByIds(roleIds);
+
+        UserBatchResultDto[] results = new UserBatchResultDto[users.size()];
+        User[] entities = new User[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            UserDto userDto = users.get(i);
+            Role role = roles.get(userDto.getRole_id());
+            if (role == null) {
+                results[i] = UserBatchResultDto.failed("Роль c id " + userDto.getRole_id() + " не найден");
+                continue;
+            }
+            User user = userMapper.convertDtoToEntity(userDto, role);
+            try {
+                USER_VALIDATOR.validate(user);
+            } catch (EmptyFieldException e) {
+                results[i] = UserBatchResultDto.failed(e.getMessage());
+                continue;
+            }
+            entities[i] = user;
+        }
+
+        // дубликаты email внутри пакета и уже занятые адреса отсекаются до flush:
+        // нарушение ux_users_email_lower откатило бы весь пакет
+        Set<String> emails = new HashSet<>();
+        for (User user : entities) {
+            if (user != null) emails.add(user.getEmail().toLowerCase(Locale.ROOT));
+        }
+        Set<String> taken = emails.isEmpty() ? new HashSet<>() : new HashSet<>(repository.findExistingEmails(emails));
+        List<User> valid = new ArrayList<>(users.size());
+        for (int i = 0; i < entities.length; i++) {
+            if (entities[i] == null) continue;
+            if (!taken.add(entities[i].getEmail().toLowerCase(Locale.ROOT))) {
+                results[i] = UserBatchResultDto.failed(
+                        "Пользователь c email " + entities[i].getEmail() + " уже существует");
+                entities[i] = null;
+                continue;
+            }
+            valid.add(entities[i]);
+        }
+
+        // гонка с параллельной вставкой или удалённая роль всё равно откатят пакет, вызывающий повторяет его построчно
+        translateViolations(() -> repository.saveAllAndFlush(valid), null, null);
+
+        List<UserEventDto> events = new ArrayList<>(valid.size());
+        for (int i = 0; i < entities.length; i++) {
+            if (entities[i] == null) continue;
+            results[i] = UserBatchResultDto.created(entities[i].getId());
+            events.add(userMapper.convertEntityToEventDto(entities[i], EventType.CREATED));
+        }
+        outboxWriter.enqueueAll(USER_EVENT.name, EventType.CREATED.name(), events, UserEventDto::getId);
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public void delete(Long id) {
-        User user = findEntityById(id);
-        repository.delete(user);
+        delete(id, null);
+    }
+
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
+        User user = repository.deleteReturning(id, expectedVersion)
+                .orElseThrow(() -> missingOrStale(id, expectedVersion));
         UserEventDto userEventDto = userMapper.convertEntityToEventDto(user, EventType.DELETED);
-        eventPublisher.publish(USER_EVENT.name, userEventDto.getEmail(), userEventDto);
+        outboxWriter.enqueue(USER_EVENT.name, user.getId(), userEventDto.getEventType(), userEventDto);
+    }
+
+    @Transactional
+    public int deleteAll(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) throw new BulkRequestException("Список ids пустой");
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_BULK_SIZE) {
+            throw new BulkRequestException("За один запрос можно удалить не более " + MAX_BULK_SIZE + " пользователей");
+        }
+        List<User> deleted = repository.deleteAllReturning(distinct);
+        List<UserEventDto> events = new ArrayList<>(deleted.size());
+        for (User user : deleted) events.add(userMapper.convertEntityToEventDto(user, EventType.DELETED));
+        outboxWriter.enqueueAll(USER_EVENT.name, EventType.DELETED.name(), events, UserEventDto::getId);
+        return deleted.size();
+    }
+
+    @Transactional
+    public int reassignRole(Long fromRoleId, Long toRoleId) {
+        if (fromRoleId == null) throw new EmptyFieldException("Поле from_role_id пустое");
+        if (toRoleId == null) throw new EmptyFieldException("Поле to_role_id пустое");
+        if (fromRoleId.equals(toRoleId)) return 0;
+        List<User> moved = translateViolations(() -> repository.reassignRoleReturning(fromRoleId, toRoleId),
+                null, toRoleId);
+        List<UserUpdatedEventDto> events = new ArrayList<>(moved.size());
+        for (User user : moved) events.add(userMapper.convertToRoleReassignedEventDto(user));
+        outboxWriter.enqueueAll(USER_EVENT.name, EventType.UPDATED.name(), events, UserUpdatedEventDto::getId);
+        return moved.size();
     }
 
     public List<UserDto> findAll() {
-        List<User> userList = repository.findAll();
+        List<UserDto> userList = repository.findAllDtos();
         if (userList.isEmpty()) throw new UserNotFoundedException("Пользователей нет в базе данных");
-        return userList.stream().map(userMapper::convertEntityToDto).toList();
+        return userList;
+    }
+
+    public UserPageDto findPage(String after, Integer limit) {
+        Long afterId = CursorCodec.decode(after);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<UserDto> userList = repository.findPageAfter(afterId == null ? 0L : afterId,
+                PageRequest.ofSize(pageSize + 1));
+
+        boolean hasNext = userList.size() > pageSize;
+        List<UserDto> page = hasNext ? userList.subList(0, pageSize) : userList;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+        return new UserPageDto(page, nextCursor);
+    }
+
+    public void exportAll(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = repository.streamAll()) {
+            users.forEach(consumer);
+        }
     }
 
 
+    @Transactional
     public UserDto update(Long id, UserDto userDto) {
-        User existing = findEntityById(id);
-        Role role = roleService.findEntityById(userDto.getRole_id());
-        User newEntity  = userMapper.convertDtoToEntity(userDto, role);
+        return update(id, userDto, null);
+    }
 
-        BeanUtilsHelper.copyNonNullProperties(newEntity, existing, "id");
-        User userNew = repository.save(existing);
-        return userMapper.convertEntityToDto(userNew);
+    @Transactional
+    public UserDto update(Long id, UserDto userDto, Long expectedVersion) {
+        return applyChanges(id, userMapper.convertDtoToColumns(userDto), expectedVersion);
+    }
+
+    @Transactional
+    public UserDto patch(Long id, Map<String, Object> patch, Long expectedVersion) {
+        return applyChanges(id, userMapper.convertPatchToColumns(patch), expectedVersion);
     }
 
 
     public UserDto findById(Long id) {
-        User user = repository.findById(id)
+        return repository.findDtoById(id)
                 .orElseThrow(() -> new UserNotFoundedException("Пользователь c id " + id + " не найден"));
-        return userMapper.convertEntityToDto(user);
     }
 
-    private User findEntityById(Long id) {
-        User user = repository.findById(id)
+    public UserDto findByEmail(String email) {
+        return repository.findDtoByEmail(email)
+                .orElseThrow(() -> new UserNotFoundedException("Пользователь c email " + email + " не найден"));
+    }
+
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id)
                 .orElseThrow(() -> new UserNotFoundedException("Пользователь c id " + id + " не найден"));
-        return user;
     }
 
-    private void userFieldsValidation(User user) throws EmptyFieldException {
-        for (Field field : user.getClass().getDeclaredFields()) {
-            if (field.getName().equals("id")) continue;
-            field.setAccessible(true);
-            try {
-                Object value = field.get(user);
-                if (value == null
-                        || (value instanceof String && ((String) value).isEmpty())
-                        || (value instanceof Number && ((Number) value).intValue() == 0)) {
-                    throw new EmptyFieldException("Поле " + field.getName() + " пустое");
+    // уникальность email и существование роли проверяют ux_users_email_lower и fk_user_role, без предварительного SELECT
+    private static <T> T translateViolations(Supplier<T> write, Object email, Object roleId) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation) {
+                if (EMAIL_UNIQUE_INDEX.equals(violation.getConstraintName())) {
+                    throw new EmailAlreadyExistsException(email == null
+                            ? "Пользователь c таким email уже существует"
+                            : "Пользователь c email " + email + " уже существует");
+                }
+                if (ROLE_FOREIGN_KEY.equals(violation.getConstraintName())) {
+                    throw new RoleNotFoundedException(roleId == null
+                            ? "Роль не найдена"
+                            : "Роль c id " + roleId + " не найден");
                 }
-            } catch (IllegalAccessException e) {
-                throw new EmptyFieldException(e.getMessage());
             }
+            throw e;
+        }
+    }
+
+    private UserDto applyChanges(Long id, Map<String, Object> columns, Long expectedVersion) {
+        // некорректные значения отклоняются до UPDATE: без записи, отката и вытеснения кеша
+        USER_VALIDATOR.validateValues(columns);
+        Optional<UserChange> changed = columns.isEmpty() ? Optional.empty() : translateViolations(
+                () -> repository.updateReturning(id, columns, expectedVersion),
+                columns.get("email"), columns.get("role_id"));
+        if (changed.isEmpty()) return unchanged(id, expectedVersion);
+
+        UserChange change = changed.get();
+        UserDto before = userMapper.convertEntityToDto(change.before());
+        UserDto after = userMapper.convertEntityToDto(change.after());
+
+        UserUpdatedEventDto eventDto = userMapper.convertToUpdatedEventDto(before, after);
+        if (eventDto.hasChanges()) {
+            outboxWriter.enqueue(USER_EVENT.name, id, eventDto.getEventType(), eventDto);
         }
+        return after;
+    }
+
+    // UPDATE не затронул строку: пользователя нет, If-Match устарел или значения уже совпадают —
+    // в последнем случае ни записи, ни события нет, клиент получает текущее состояние
+    private UserDto unchanged(Long id, Long expectedVersion) {
+        UserDto user = findById(id);
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new VersionMismatchException("Версия пользователя c id " + id + " изменилась: ожидалась "
+                    + expectedVersion + ", текущая " + user.getVersion());
+        }
+        return user;
+    }
+
+    // запрос изменения не вернул строку: различаем отсутствующего пользователя и устаревший If-Match
+    private RuntimeException missingOrStale(Long id, Long expectedVersion) {
+        Optional<Long> current = expectedVersion == null ? Optional.empty() : repository.findVersionById(id);
+        if (current.isEmpty()) return new UserNotFoundedException("Пользователь c id " + id + " не найден");
+        return new VersionMismatchException("Версия пользователя c id " + id + " изменилась: ожидалась "
+                + expectedVersion + ", текущая " + current.get());
     }
 }
@@ -1,9 +1,12 @@
 package ru.astondevs.util;
 
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
 import ru.astondevs.entity.Role;
 import ru.astondevs.entity.User;
 
@@ -11,11 +14,17 @@ import java.io.InputStream;
 import java.util.Properties;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ConnectionManager {
 
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
     private static SessionFactory sessionFactory;
 
+    // сессия единицы работы текущего потока; DAO-вызовы внутри inUnitOfWork используют её вместо своей
+    private static final ThreadLocal<Session> UNIT_OF_WORK = new ThreadLocal<>();
+
     public static void init() {
         try (InputStream inputStream = ConnectionManager.class
                 .getClassLoader()
@@ -35,12 +44,28 @@ public class ConnectionManager {
         }
     }
 
-    public static void init(Properties properties) {
+    // пул HikariCP берёт url, логин и пароль из тех же hibernate.connection.*, настройки пула — из hibernate.hikari.*
+    public static synchronized void init(Properties properties) {
+        Properties settings = new Properties();
+        settings.putAll(properties);
+        settings.putIfAbsent(AvailableSettings.CONNECTION_PROVIDER, HikariCPConnectionProvider.class.getName());
+        // без fetch size драйвер PostgreSQL читает весь результат в память одним куском
+        settings.putIfAbsent(AvailableSettings.STATEMENT_FETCH_SIZE, String.valueOf(DEFAULT_FETCH_SIZE));
+
         Configuration configuration = new Configuration();
-        configuration.setProperties(properties);
+        configuration.setProperties(settings);
         configuration.addAnnotatedClass(User.class);
         configuration.addAnnotatedClass(Role.class);
+        SessionFactory previous = sessionFactory;
         sessionFactory = configuration.buildSessionFactory();
+        if (previous != null) previous.close();
+    }
+
+    public static synchronized void shutdown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+            sessionFactory = null;
+        }
     }
 
     private ConnectionManager() {
@@ -57,7 +82,35 @@ public class ConnectionManager {
         }
     }
 
+    // одна сессия и одна транзакция на несколько DAO-вызовов; вложенный вызов присоединяется к внешнему
+    public static <T> T inUnitOfWork(Supplier<T> work) {
+        if (UNIT_OF_WORK.get() != null) return work.get();
+        try (Session session = ConnectionManager.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            UNIT_OF_WORK.set(session);
+            try {
+                T result = work.get();
+                transaction.commit();
+                return result;
+            } catch (Exception e) {
+                if (transaction.isActive()) transaction.rollback();
+                throw e;
+            } finally {
+                UNIT_OF_WORK.remove();
+            }
+        }
+    }
+
+    public static void inUnitOfWork(Runnable work) {
+        inUnitOfWork(() -> {
+            work.run();
+            return null;
+        });
+    }
+
     public static <T> T executeInTransaction(Function<Session, T> action) {
+        Session current = UNIT_OF_WORK.get();
+        if (current != null) return action.apply(current);
         try (Session session = ConnectionManager.openSession()) {
             Transaction transaction = session.beginTransaction();
             try {
@@ -71,16 +124,35 @@ public class ConnectionManager {
         }
     }
 
-    public static void executeInTransaction(Consumer<Session> action) {
+    // чтение: сущности без снимков для dirty checking, без flush, соединение помечено read-only,
+    // поэтому драйвер и PostgreSQL могут не готовиться к записи
+    public static <T> T executeReadOnly(Function<Session, T> action) {
+        // внутри единицы работы прочитанную сущность может изменить следующий DAO-вызов,
+        // поэтому чтение присоединяется к её транзакции как обычное
+        Session current = UNIT_OF_WORK.get();
+        if (current != null) return action.apply(current);
         try (Session session = ConnectionManager.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            // признак read-only нельзя менять внутри начатой транзакции; сбрасывать его не нужно —
+            // HikariCP возвращает в пул соединение с исходным readOnly
+            session.doWork(connection -> connection.setReadOnly(true));
             Transaction transaction = session.beginTransaction();
             try {
-                action.accept(session);
+                T result = action.apply(session);
                 transaction.commit();
+                return result;
             } catch (Exception e) {
                 transaction.rollback();
                 throw e;
             }
         }
     }
+
+    public static void executeInTransaction(Consumer<Session> action) {
+        executeInTransaction(session -> {
+            action.accept(session);
+            return null;
+        });
+    }
 }
@@ -35,6 +35,26 @@ public class ConsoleHelper {
         return number;
     }
 
+    public long readValidLong(String prompt) {
+        long number = 0;
+        boolean valid = false;
+        do {
+            System.out.print(prompt);
+            String line = scanner.nextLine();
+            try {
+                number = Long.parseLong(line);
+                if (number <= 0) {
+                    System.out.println("❌ Число должно быть положительным!");
+                } else {
+                    valid = true;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Введите корректное число!");
+            }
+        } while (!valid);
+        return number;
+    }
+
     public String readValidLine(String prompt) {
         String line;
         do {
@@ -73,7 +93,7 @@ public class ConsoleHelper {
             }
         } while (!valid);
 
-        return number;
+        return roles.get((int) number - 1).getId();
     }
 
     public boolean isNull(Object obj, String message) {
@@ -0,0 +1,27 @@
+package ru.astondevs.util;
+
+import ru.astondevs.errors.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
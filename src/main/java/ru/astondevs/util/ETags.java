@@ -0,0 +1,61 @@
+package ru.astondevs.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// ETag пользователя — его версия (@Version), поэтому сравнение не требует чтения и сериализации тела
+public final class ETags {
+    private static final String ANY = "*";
+    private static final Long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match: список тегов через запятую, слабые теги (W/) сравниваются как сильные
+    public static boolean matches(String header, Long version) {
+        if (header == null || version == null) return false;
+        String expected = of(version);
+        for (String tag : header.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY)) return true;
+            if (trimmed.startsWith("W/")) trimmed = trimmed.substring(2);
+            if (trimmed.equals(expected)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Версия из If-Match: null, если заголовка нет или он равен "*" (подходит любая версия),
+     * -1, если ни один тег списка не может совпасть. Сравнение сильное (RFC 7232): слабые теги W/ не совпадают.
+     * Текущая версия запрашивается, только когда в списке несколько тегов.
+     */
+    public static Long expectedVersion(String header, Supplier<Long> currentVersion) {
+        if (header == null) return null;
+        List<Long> versions = new ArrayList<>();
+        for (String tag : header.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY)) return null;
+            Long version = strongVersion(trimmed);
+            if (version != null) versions.add(version);
+        }
+        if (versions.isEmpty()) return NO_MATCH;
+        if (versions.size() == 1) return versions.get(0);
+        // запись остаётся условной: если строку изменят после чтения версии, UPDATE её не найдёт
+        Long current = currentVersion.get();
+        return versions.contains(current) ? current : NO_MATCH;
+    }
+
+    private static Long strongVersion(String tag) {
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') return null;
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.astondevs.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.logging.Logger;
+
+@Configuration
+public class IdGeneratorConfig {
+    private static final Logger log = Logger.getLogger(IdGeneratorConfig.class.getName());
+
+    // номер узла задаётся явно и уникален для каждого экземпляра: совпадение узлов даёт одинаковые id в одну миллисекунду
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeNodeIdCustomizer(
+            @Value("${user-service.id.node-id:#{null}}") Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("Не задан user-service.id.node-id: уникальный номер узла 0.."
+                    + SnowflakeIdGenerator.MAX_NODE_ID + " для генерации идентификаторов");
+        }
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("user-service.id.node-id должен быть в диапазоне 0.."
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ": " + nodeId);
+        }
+        log.info("Snowflake node id: " + nodeId);
+        return properties -> properties.put(SnowflakeIdentifierGenerator.NODE_ID_SETTING, Long.toString(nodeId));
+    }
+}
@@ -2,7 +2,10 @@ package ru.astondevs.util;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 @Service
@@ -11,15 +14,14 @@ public class KafkaEventPublisher {
 
     private static final Logger log = Logger.getLogger(KafkaEventPublisher.class.getName());
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaPublishMetrics metrics;
 
-    public void publish(String topic, String key, Object payload) {
-        kafkaTemplate.send(topic, key, payload)
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object payload) {
+        long start = System.nanoTime();
+        return kafkaTemplate.send(topic, key, payload)
                 .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Sent event for user " + key + " to topic " +  topic);
-                    } else {
-                        log.warning("Failed to send event for user " + key + " " + ex);
-                    }
+                    metrics.record(start, ex);
+                    if (ex != null) log.fine("Failed to send event for user " + key + " " + ex);
                 });
     }
 }
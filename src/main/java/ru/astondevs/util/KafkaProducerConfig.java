@@ -0,0 +1,17 @@
+package ru.astondevs.util;
+
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+public class KafkaProducerConfig {
+
+    // профиль накладывается поверх spring.kafka.producer.*, сериализаторы и адреса брокеров остаются оттуда
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerProfileCustomizer(KafkaProducerProperties properties) {
+        return factory -> factory.updateConfigs(properties.toProducerConfig());
+    }
+}
@@ -0,0 +1,32 @@
+package ru.astondevs.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.kafka.producer")
+public class KafkaProducerProperties {
+    private int lingerMs = 20;
+    private int batchSize = 64 * 1024;
+    private String compressionType = "lz4";
+    private boolean idempotence = true;
+    private String acks = "all";
+    private int maxInFlightRequests = 5;
+
+    public Map<String, Object> toProducerConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        config.put(ProducerConfig.ACKS_CONFIG, acks);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        return config;
+    }
+}
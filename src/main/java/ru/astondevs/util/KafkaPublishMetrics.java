@@ -0,0 +1,87 @@
+package ru.astondevs.util;
+
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+@Component
+public class KafkaPublishMetrics {
+    private static final Logger log = Logger.getLogger(KafkaPublishMetrics.class.getName());
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaProducerProperties producerProperties;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public KafkaPublishMetrics(KafkaTemplate<String, Object> kafkaTemplate, KafkaProducerProperties producerProperties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.producerProperties = producerProperties;
+    }
+
+    public void record(long startNanos, Throwable error) {
+        long latency = System.nanoTime() - startNanos;
+        if (error == null) {
+            sent.increment();
+        } else {
+            failed.increment();
+        }
+        latencyNanos.add(latency);
+        maxLatencyNanos.accumulate(latency);
+    }
+
+    public Snapshot snapshotAndReset() {
+        long sentCount = sent.sumThenReset();
+        long failedCount = failed.sumThenReset();
+        long totalLatency = latencyNanos.sumThenReset();
+        long maxLatency = maxLatencyNanos.getThenReset();
+        long count = sentCount + failedCount;
+        double avgLatencyMs = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency / count) / 1000.0;
+        return new Snapshot(sentCount, failedCount, avgLatencyMs,
+                TimeUnit.NANOSECONDS.toMicros(maxLatency) / 1000.0, batchFillRatio());
+    }
+
+    // средний размер батча продюсера относительно настроенного batch.size
+    public double batchFillRatio() {
+        Double batchSizeAvg = producerMetric("batch-size-avg");
+        if (batchSizeAvg == null || batchSizeAvg.isNaN() || producerProperties.getBatchSize() <= 0) return 0;
+        return batchSizeAvg / producerProperties.getBatchSize();
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.kafka.metrics.log-interval-ms:60000}")
+    public void logSnapshot() {
+        Snapshot snapshot = snapshotAndReset();
+        if (snapshot.sent() == 0 && snapshot.failed() == 0) return;
+        String message = String.format("Kafka publish: sent=%d, failed=%d, avgLatencyMs=%.2f, maxLatencyMs=%.2f, batchFillRatio=%.2f",
+                snapshot.sent(), snapshot.failed(), snapshot.avgLatencyMs(), snapshot.maxLatencyMs(), snapshot.batchFillRatio());
+        if (snapshot.failed() > 0) {
+            log.warning(message);
+        } else {
+            log.info(message);
+        }
+    }
+
+    private Double producerMetric(String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+            MetricName metricName = entry.getKey();
+            if (name.equals(metricName.name()) && "producer-metrics".equals(metricName.group())) {
+                Object value = entry.getValue().metricValue();
+                return value instanceof Number number ? number.doubleValue() : null;
+            }
+        }
+        return null;
+    }
+
+    public record Snapshot(long sent, long failed, double avgLatencyMs, double maxLatencyMs, double batchFillRatio) {
+    }
+}
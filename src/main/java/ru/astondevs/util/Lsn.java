@@ -0,0 +1,22 @@
+package ru.astondevs.util;
+
+// позиция в WAL PostgreSQL: текстовый вид "16/B374D848" — старшие и младшие 32 бита в hex
+public final class Lsn {
+    private Lsn() {
+    }
+
+    public static long parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash <= 0 || slash == value.length() - 1) {
+            throw new IllegalArgumentException("Некорректный LSN: " + value);
+        }
+        long high = Long.parseUnsignedLong(value.substring(0, slash), 16);
+        long low = Long.parseUnsignedLong(value.substring(slash + 1), 16);
+        if (high > 0xFFFFFFFFL || low > 0xFFFFFFFFL) throw new IllegalArgumentException("Некорректный LSN: " + value);
+        return high << 32 | low;
+    }
+
+    public static String format(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+}
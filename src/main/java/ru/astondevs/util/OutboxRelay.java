@@ -0,0 +1,151 @@
+package ru.astondevs.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.dto.UserUpdatedEventDto;
+import ru.astondevs.dto.enums.EventType;
+import ru.astondevs.entity.OutboxEvent;
+import ru.astondevs.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class OutboxRelay {
+    private static final Logger log = Logger.getLogger(OutboxRelay.class.getName());
+
+    private final OutboxRepository repository;
+    private final KafkaEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${user-service.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user-service.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${user-service.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${user-service.outbox.coalesce-window-ms:0}")
+    private long coalesceWindowMs;
+
+    public OutboxRelay(OutboxRepository repository, KafkaEventPublisher eventPublisher,
+                       ObjectMapper objectMapper, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.outbox.poll-interval-ms:500}")
+    public void relay() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Integer deleted = transactionTemplate.execute(status -> repository.deletePublishedBefore(before));
+        if (deleted != null && deleted > 0) log.info("Удалено опубликованных событий outbox: " + deleted);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = coalesceWindowMs > 0
+                ? repository.lockNextBatchCreatedBefore(batchSize, LocalDateTime.now().minusNanos(coalesceWindowMs * 1_000_000))
+                : repository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) return 0;
+
+        List<PendingMessage> messages = coalesceWindowMs > 0 ? coalesce(batch) : toMessages(batch);
+        List<CompletableFuture<?>> futures = new ArrayList<>(messages.size());
+        for (PendingMessage message : messages) {
+            futures.add(send(message));
+        }
+
+        // помечаем опубликованным только непрерывный префикс пакета, чтобы не нарушить порядок событий
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                publishedIds.addAll(messages.get(i).eventIds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.log(Level.WARNING, "Не удалось отправить событие " + messages.get(i).event() + ": " + e.getMessage(), e);
+                break;
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            repository.markPublished(publishedIds, LocalDateTime.now());
+        }
+        return publishedIds.size();
+    }
+
+    private List<PendingMessage> toMessages(List<OutboxEvent> batch) {
+        List<PendingMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            messages.add(new PendingMessage(event, readPayload(event), new ArrayList<>(List.of(event.getId()))));
+        }
+        return messages;
+    }
+
+    // подряд идущие UPDATED одного пользователя сливаются в одно событие; CREATED и DELETED разрывают цепочку
+    private List<PendingMessage> coalesce(List<OutboxEvent> batch) {
+        List<PendingMessage> messages = new ArrayList<>(batch.size());
+        Map<Long, PendingMessage> lastByAggregate = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            Object payload = readPayload(event);
+            PendingMessage last = event.getAggregateId() == null ? null : lastByAggregate.get(event.getAggregateId());
+            if (payload instanceof UserUpdatedEventDto updated
+                    && last != null
+                    && last.payload() instanceof UserUpdatedEventDto merged
+                    && EventType.UPDATED.name().equals(last.event().getEventType())) {
+                merged.merge(updated);
+                last.eventIds().add(event.getId());
+                continue;
+            }
+            PendingMessage message = new PendingMessage(event, payload, new ArrayList<>(List.of(event.getId())));
+            messages.add(message);
+            if (event.getAggregateId() != null) lastByAggregate.put(event.getAggregateId(), message);
+        }
+        return messages;
+    }
+
+    private Object readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception e) {
+            // событие невозможно восстановить, повторная отправка не поможет
+            log.log(Level.SEVERE, "Событие " + event + " пропущено: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private CompletableFuture<?> send(PendingMessage message) {
+        if (message.payload() == null) return CompletableFuture.completedFuture(null);
+        // записи, оставшиеся в outbox с ключом-email, тоже отправляются по id агрегата
+        String key = message.event().getAggregateId() != null
+                ? String.valueOf(message.event().getAggregateId())
+                : message.event().getEventKey();
+        return eventPublisher.send(message.event().getTopic(), key, message.payload());
+    }
+
+    private record PendingMessage(OutboxEvent event, Object payload, List<Long> eventIds) {
+    }
+}
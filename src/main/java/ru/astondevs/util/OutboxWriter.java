@@ -0,0 +1,58 @@
+package ru.astondevs.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astondevs.entity.OutboxEvent;
+import ru.astondevs.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private final OutboxRepository repository;
+    private final ObjectMapper objectMapper;
+
+    // событие пишется в той же транзакции, что и изменение пользователя, и уходит в Kafka через OutboxRelay;
+    // ключ сообщения — id агрегата: события одного пользователя попадают в одну партицию и при смене email
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, Long aggregateId, String eventType, Object payload) {
+        repository.save(toEvent(topic, aggregateId, eventType, payload, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void enqueueAll(String topic, String eventType, List<T> payloads,
+                               Function<T, Long> aggregateIdExtractor) {
+        if (payloads.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        for (T payload : payloads) {
+            events.add(toEvent(topic, aggregateIdExtractor.apply(payload), eventType, payload, now));
+        }
+        repository.saveAll(events);
+    }
+
+    private OutboxEvent toEvent(String topic, Long aggregateId, String eventType,
+                                Object payload, LocalDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(topic);
+        event.setEventKey(String.valueOf(aggregateId));
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setPayloadType(payload.getClass().getName());
+        event.setCreatedAt(createdAt);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + eventType, e);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.astondevs.util;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Копирование свойств между бинами по тем же правилам, что и {@link BeanUtils#copyProperties(Object, Object)}.
+ * План копирования (пары геттер/сеттер через LambdaMetafactory) строится один раз на пару классов,
+ * дальше копирование сводится к прямым вызовам аксессоров.
+ */
+public final class PropertyCopier<S, T> {
+    private static final ClassValue<ClassValue<PropertyCopier<?, ?>>> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassValue<PropertyCopier<?, ?>> computeValue(Class<?> sourceType) {
+            return new ClassValue<>() {
+                @Override
+                protected PropertyCopier<?, ?> computeValue(Class<?> targetType) {
+                    return new PropertyCopier<>(sourceType, targetType);
+                }
+            };
+        }
+    };
+
+    private final Accessor[] accessors;
+
+    private PropertyCopier(Class<?> sourceType, Class<?> targetType) {
+        List<Accessor> accessors = new ArrayList<>();
+        for (PropertyDescriptor targetPd : BeanUtils.getPropertyDescriptors(targetType)) {
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null) continue;
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceType, targetPd.getName());
+            if (sourcePd == null || sourcePd.getReadMethod() == null) continue;
+            Method readMethod = sourcePd.getReadMethod();
+            if (!ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) continue;
+
+            accessors.add(new Accessor(targetPd.getName(), getter(readMethod), setter(writeMethod),
+                    writeMethod.getParameterTypes()[0].isPrimitive()));
+        }
+        this.accessors = accessors.toArray(new Accessor[0]);
+    }
+
+    private PropertyCopier(Accessor[] accessors) {
+        this.accessors = accessors;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <S, T> PropertyCopier<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        return (PropertyCopier<S, T>) CACHE.get(sourceType).get(targetType);
+    }
+
+    // копия плана без указанных свойств; результат стоит держать в статическом поле
+    public PropertyCopier<S, T> ignoring(String... properties) {
+        Set<String> ignored = Set.of(properties);
+        return new PropertyCopier<>(Arrays.stream(accessors)
+                .filter(accessor -> !ignored.contains(accessor.name()))
+                .toArray(Accessor[]::new));
+    }
+
+    public void copy(S source, T target) {
+        for (Accessor accessor : accessors) {
+            Object value = accessor.getter().apply(source);
+            if (value == null && accessor.primitive()) continue;
+            accessor.setter().accept(target, value);
+        }
+    }
+
+    public void copyNonNull(S source, T target) {
+        for (Accessor accessor : accessors) {
+            Object value = accessor.getter().apply(source);
+            if (value != null) accessor.setter().accept(target, value);
+        }
+    }
+
+    public void copyNonNull(S source, T target, String... ignoreProperties) {
+        for (Accessor accessor : accessors) {
+            if (contains(ignoreProperties, accessor.name())) continue;
+            Object value = accessor.getter().apply(source);
+            if (value != null) accessor.setter().accept(target, value);
+        }
+    }
+
+    private static boolean contains(String[] values, String value) {
+        if (values == null) return false;
+        for (String candidate : values) {
+            if (value.equals(candidate)) return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(MethodType.methodType(method.getReturnType()).wrap().returnType(),
+                                method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // класс недоступен для LambdaMetafactory (например, из другого загрузчика) — работаем через MethodHandle
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> {
+                    try {
+                        return generic.invokeExact(bean);
+                    } catch (Throwable t) {
+                        throw new IllegalStateException("Не удалось прочитать свойство " + method.getName(), t);
+                    }
+                };
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к методу " + method.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            Class<?> valueType = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), valueType));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                return (bean, value) -> {
+                    try {
+                        generic.invokeExact(bean, value);
+                    } catch (Throwable t) {
+                        throw new IllegalStateException("Не удалось записать свойство " + method.getName(), t);
+                    }
+                };
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к методу " + method.getName(), e);
+        }
+    }
+
+    private record Accessor(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+                            boolean primitive) {
+    }
+}
@@ -0,0 +1,47 @@
+package ru.astondevs.util;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.astondevs.repository.ReactiveUserRepository;
+
+@Configuration
+@EnableConfigurationProperties(ReactiveReadProperties.class)
+public class ReactiveReadConfig {
+    private static final String JDBC_PREFIX = "jdbc:";
+
+    // пул не публикуется бином ConnectionFactory: иначе Spring Boot отключит DataSource, на котором работает JPA
+    @Bean(destroyMethod = "close")
+    public ReactiveUserRepository reactiveUserRepository(ReactiveReadProperties properties,
+                                                         DataSourceProperties dataSourceProperties) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl(properties, dataSourceProperties))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword())
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("user-read")
+                .initialSize(properties.getInitialSize())
+                .maxSize(properties.getMaxSize())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .build());
+        return new ReactiveUserRepository(pool, properties.getFetchSize());
+    }
+
+    private static String r2dbcUrl(ReactiveReadProperties properties, DataSourceProperties dataSourceProperties) {
+        if (properties.getUrl() != null) return properties.getUrl();
+        String jdbcUrl = dataSourceProperties.determineUrl();
+        if (jdbcUrl == null || !jdbcUrl.startsWith(JDBC_PREFIX)) {
+            throw new IllegalStateException("Не задан user-service.r2dbc.url и не удалось вывести его из " + jdbcUrl);
+        }
+        String url = "r2dbc:" + jdbcUrl.substring(JDBC_PREFIX.length());
+        // параметры JDBC-драйвера R2DBC не понимает
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+}
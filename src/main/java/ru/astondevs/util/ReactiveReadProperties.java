@@ -0,0 +1,19 @@
+package ru.astondevs.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("user-service.r2dbc")
+public class ReactiveReadProperties {
+    // null — адрес берётся из spring.datasource.url с заменой jdbc: на r2dbc:
+    private String url;
+    private int initialSize = 2;
+    private int maxSize = 20;
+    private Duration maxIdleTime = Duration.ofMinutes(30);
+    private int fetchSize = 1000;
+}
@@ -0,0 +1,27 @@
+package ru.astondevs.util;
+
+// минимальный LSN, который должна воспроизвести реплика, чтобы клиент увидел свою последнюю запись
+public final class ReadYourWrites {
+    public static final String HEADER = "X-Write-LSN";
+    public static final String COOKIE = "write_lsn";
+    // токен не разобран — надёжнее читать с primary, чем рискнуть устаревшими данными
+    public static final long PRIMARY_ONLY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> REQUIRED_LSN = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static long requiredLsn() {
+        Long lsn = REQUIRED_LSN.get();
+        return lsn == null ? 0 : lsn;
+    }
+
+    public static void require(long lsn) {
+        if (lsn > requiredLsn()) REQUIRED_LSN.set(lsn);
+    }
+
+    public static void clear() {
+        REQUIRED_LSN.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.astondevs.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// LSN последней записи клиента приходит заголовком X-Write-LSN или cookie write_lsn
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = token(request);
+        if (token != null) ReadYourWrites.require(parse(token));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static String token(HttpServletRequest request) {
+        String header = request.getHeader(ReadYourWrites.HEADER);
+        if (header != null && !header.isBlank()) return header.trim();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (ReadYourWrites.COOKIE.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    private static long parse(String token) {
+        try {
+            return Lsn.parse(token);
+        } catch (IllegalArgumentException e) {
+            return ReadYourWrites.PRIMARY_ONLY;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.astondevs.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+// реплика может отставать: прочитанные с неё строки нельзя класть в READ_WRITE регионы кеша второго уровня,
+// иначе устаревшая версия переживёт вытеснение после записи. Поэтому цель read-only транзакции выбирается
+// в её начале, до первого обращения к кешу, и на реплике сессия только читает кеш (CacheMode.GET)
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    private final Supplier<ReplicaRoutingDataSource> routing;
+
+    public ReplicaAwareJpaDialect(Supplier<ReplicaRoutingDataSource> routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object sessionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return sessionData;
+        }
+        ReplicaRoutingDataSource dataSource = routing.get();
+        String target = dataSource.pickReadOnlyTarget();
+        // REQUIRES_NEW внутри другой read-only транзакции: её цель восстанавливается после завершения вложенной
+        Object previousTarget = TransactionSynchronizationManager.unbindResourceIfPossible(dataSource);
+        TransactionSynchronizationManager.bindResource(dataSource, target);
+
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        if (!ReplicaRoutingDataSource.PRIMARY.equals(target)) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        return new ReadOnlyTransactionData(sessionData, dataSource, previousTarget, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (!(transactionData instanceof ReadOnlyTransactionData data)) {
+            super.cleanupTransaction(transactionData);
+            return;
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(data.dataSource());
+        if (data.previousTarget() != null) {
+            TransactionSynchronizationManager.bindResource(data.dataSource(), data.previousTarget());
+        }
+        if (data.session().isOpen()) {
+            data.session().setCacheMode(data.previousCacheMode());
+        }
+        super.cleanupTransaction(data.sessionData());
+    }
+
+    private record ReadOnlyTransactionData(Object sessionData, ReplicaRoutingDataSource dataSource,
+                                           Object previousTarget, Session session, CacheMode previousCacheMode) {
+    }
+}
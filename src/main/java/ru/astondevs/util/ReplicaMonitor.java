@@ -0,0 +1,101 @@
+package ru.astondevs.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ReplicaMonitor implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(ReplicaMonitor.class.getName());
+    private static final long UNAVAILABLE = -1;
+
+    private final List<HikariDataSource> replicas;
+    // последний известный воспроизведённый LSN реплики; он только растёт, поэтому устаревшее значение — нижняя граница
+    private final AtomicLongArray replayLsn;
+    private final AtomicInteger next = new AtomicInteger();
+    // отдельный поток: недоступная реплика держит опрос до connectionTimeout и не должна задерживать
+    // OutboxRelay и остальные задачи общего планировщика @Scheduled
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaMonitor(List<HikariDataSource> replicas) {
+        this.replicas = List.copyOf(replicas);
+        this.replayLsn = new AtomicLongArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) replayLsn.set(i, UNAVAILABLE);
+    }
+
+    // первый опрос идёт в фоне и не задерживает запуск: пока он не прошёл, все чтения идут на primary
+    public void start(long intervalMs) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // исключение из задачи отменило бы все следующие опросы
+                log.log(Level.WARNING, "Опрос реплик не удался: " + e.getMessage(), e);
+            }
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void refresh() {
+        for (int i = 0; i < replicas.size(); i++) {
+            replayLsn.set(i, queryReplayLsn(replicas.get(i)));
+        }
+    }
+
+    // реплика, догнавшая requiredLsn, выбирается по кругу; -1 — подходящей нет, читать с primary
+    public int pick(long requiredLsn) {
+        int size = replicas.size();
+        if (size == 0) return -1;
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int k = 0; k < size; k++) {
+            int i = (start + k) % size;
+            long lsn = replayLsn.get(i);
+            if (lsn != UNAVAILABLE && lsn >= requiredLsn) return i;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    public DataSource replica(int index) {
+        return replicas.get(index);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private static long queryReplayLsn(HikariDataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_last_wal_replay_lsn()")) {
+            String lsn = rs.next() ? rs.getString(1) : null;
+            if (lsn == null) {
+                // сервер не в режиме восстановления — это не реплика
+                log.warning("Реплика " + replica.getPoolName() + " не воспроизводит WAL и исключена из чтения");
+                return UNAVAILABLE;
+            }
+            return Lsn.parse(lsn);
+        } catch (SQLException e) {
+            log.log(Level.WARNING, "Реплика " + replica.getPoolName() + " недоступна: " + e.getMessage(), e);
+            return UNAVAILABLE;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.astondevs.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "user-service.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaMonitor replicaMonitor(ReplicaRoutingProperties properties, DataSourceProperties dataSourceProperties) {
+        List<HikariDataSource> replicas = new ArrayList<>(properties.getUrls().size());
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(properties.getUrls().get(i));
+            replica.setUsername(properties.getUsername() != null
+                    ? properties.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(properties.getPassword() != null
+                    ? properties.getPassword() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            // по умолчанию Hikari ждёт соединение 30 с: недоступная реплика держала бы так каждое чтение
+            replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            replica.setValidationTimeout(properties.getValidationTimeout().toMillis());
+            // пул не ходит в базу при старте, пока реплика недоступна чтение идёт с primary
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        ReplicaMonitor monitor = new ReplicaMonitor(replicas);
+        monitor.start(properties.getMonitorIntervalMs());
+        return monitor;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaMonitor replicaMonitor,
+                                                             ReplicaRoutingProperties properties) {
+        WriteLsnTracker writeTracker = properties.isReadYourWrites()
+                ? new WriteLsnTracker(properties.getReadYourWritesTtl())
+                : null;
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaMonitor, writeTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // JpaTransactionManager берёт диалект у фабрики EntityManager, поэтому он задаётся до её инициализации
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor(
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factory) {
+                    factory.setJpaDialect(new ReplicaAwareJpaDialect(replicaRoutingDataSource::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-service.replicas", name = "read-your-writes", havingValue = "true",
+            matchIfMissing = true)
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.astondevs.util;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+// read-only транзакции уходят на реплику, всё остальное — на primary;
+// работает только под LazyConnectionDataSourceProxy, иначе соединение берётся до того, как известен признак readOnly
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private final ReplicaMonitor monitor;
+    private final WriteLsnTracker writeTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaMonitor monitor, WriteLsnTracker writeTracker) {
+        this.monitor = monitor;
+        this.writeTracker = writeTracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < monitor.size(); i++) targets.put(REPLICA_PREFIX + i, monitor.replica(i));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // LSN записи читается на том же соединении после commit, отдельное соединение с primary не берётся
+    private Connection track(Connection connection) {
+        if (writeTracker != null && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeTracker.trackCurrentTransaction(connection);
+        }
+        return connection;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        // цель, выбранная ReplicaAwareJpaDialect в начале транзакции, не меняется до её конца
+        Object bound = TransactionSynchronizationManager.getResource(this);
+        return bound != null ? bound : pickReadOnlyTarget();
+    }
+
+    String pickReadOnlyTarget() {
+        int replica = monitor.pick(ReadYourWrites.requiredLsn());
+        return replica < 0 ? PRIMARY : REPLICA_PREFIX + replica;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.astondevs.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("user-service.replicas")
+public class ReplicaRoutingProperties {
+    private boolean enabled = false;
+    private List<String> urls = new ArrayList<>();
+    // null — учётные данные берутся из spring.datasource
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private long monitorIntervalMs = 500;
+    // Hikari не принимает значения меньше 250 мс; validation-timeout должен быть меньше connection-timeout
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private Duration validationTimeout = Duration.ofMillis(500);
+    private boolean readYourWrites = true;
+    // сколько клиент хранит cookie с LSN; реплика обычно догоняет primary намного быстрее
+    private Duration readYourWritesTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,61 @@
+package ru.astondevs.util;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static ru.astondevs.util.SecondLevelCacheProperties.UPDATE_TIMESTAMPS_REGION;
+
+// кеш второго уровня Hibernate поверх JCache (Caffeine), размер и TTL регионов задаются в user-service.cache.regions
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (Map.Entry<String, SecondLevelCacheProperties.Region> entry : properties.getRegions().entrySet()) {
+            if (cacheManager.getCache(entry.getKey()) != null) cacheManager.destroyCache(entry.getKey());
+            cacheManager.createCache(entry.getKey(), toConfiguration(entry.getKey(), entry.getValue(), properties));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", properties.isEnabled());
+            hibernateProperties.put("hibernate.cache.use_query_cache", properties.isEnabled());
+            hibernateProperties.put("hibernate.generate_statistics", properties.isStatistics());
+            if (!properties.isEnabled()) return;
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // регион без настроек в application.yml создаётся с параметрами Caffeine по умолчанию и предупреждением в логе
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> toConfiguration(String name,
+                                                                         SecondLevelCacheProperties.Region region,
+                                                                         SecondLevelCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+        // метки обновления таблиц не должны устаревать раньше результатов запросов, иначе кеш запросов вернёт устаревшие данные
+        if (region.getTtl() != null && !UPDATE_TIMESTAMPS_REGION.equals(name)) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        configuration.setStatisticsEnabled(properties.isStatistics());
+        return configuration;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.astondevs.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("user-service.cache")
+public class SecondLevelCacheProperties {
+    public static final String USER_REGION = "user";
+    public static final String ROLE_REGION = "role";
+    public static final String USER_QUERY_REGION = "user-queries";
+    public static final String ROLE_QUERY_REGION = "role-queries";
+    // служебные регионы Hibernate для кеша запросов
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private boolean enabled = true;
+    private boolean statistics = true;
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maxSize = 10_000;
+        // null — записи не устаревают по времени
+        private Duration ttl;
+    }
+}
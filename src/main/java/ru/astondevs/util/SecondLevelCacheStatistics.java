@@ -0,0 +1,52 @@
+package ru.astondevs.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.logging.Logger;
+
+@Component
+public class SecondLevelCacheStatistics {
+    private static final Logger log = Logger.getLogger(SecondLevelCacheStatistics.class.getName());
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SecondLevelCacheProperties properties;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory, SecondLevelCacheProperties properties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+    }
+
+    public CacheRegionStatistics region(String regionName) {
+        return statistics().getCacheRegionStatistics(regionName);
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.cache.statistics-log-interval-ms:60000}")
+    public void logStatistics() {
+        if (!properties.isEnabled() || !properties.isStatistics()) return;
+        Statistics statistics = statistics();
+        StringBuilder message = new StringBuilder("L2 cache: hit=")
+                .append(statistics.getSecondLevelCacheHitCount())
+                .append(", miss=").append(statistics.getSecondLevelCacheMissCount())
+                .append(", query hit=").append(statistics.getQueryCacheHitCount())
+                .append(", query miss=").append(statistics.getQueryCacheMissCount());
+        for (String regionName : properties.getRegions().keySet()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) continue;
+            message.append("; ").append(regionName)
+                    .append(" hit=").append(region.getHitCount())
+                    .append(" miss=").append(region.getMissCount())
+                    .append(" put=").append(region.getPutCount())
+                    .append(" size=").append(region.getElementCountInMemory());
+        }
+        log.info(message.toString());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.astondevs.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 64-битные идентификаторы, упорядоченные по времени создания:
+ * 41 бит миллисекунд от {@link #EPOCH}, 10 бит номера узла и 12 бит счётчика внутри миллисекунды.
+ */
+public class SnowflakeIdGenerator {
+    public static final long EPOCH = 1735689600000L; // 2025-01-01T00:00:00Z
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Номер узла должен быть в диапазоне 0.." + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else if (++sequence > MAX_SEQUENCE) {
+            // счётчик исчерпан или часы ушли назад: сдвигаем логическое время вперёд, а не ждём
+            lastTimestamp++;
+            sequence = 0;
+        }
+        return ((lastTimestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+}
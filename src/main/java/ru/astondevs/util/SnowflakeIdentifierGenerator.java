@@ -0,0 +1,39 @@
+package ru.astondevs.util;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+    public static final String STRATEGY = "ru.astondevs.util.SnowflakeIdentifierGenerator";
+    public static final String NODE_ID_SETTING = "hibernate.id.snowflake.node_id";
+
+    // один генератор на узел для всех сущностей, чтобы счётчик внутри миллисекунды был общим
+    private static final Map<Long, SnowflakeIdGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    private SnowflakeIdGenerator generator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        Object nodeId = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        // узел по умолчанию у всех экземпляров один и тот же, поэтому без настройки генератор не создаётся
+        if (nodeId == null) {
+            throw new IllegalStateException("Не задан номер узла генератора идентификаторов: " + NODE_ID_SETTING);
+        }
+        long node = Long.parseLong(nodeId.toString());
+        generator = GENERATORS.computeIfAbsent(node, SnowflakeIdGenerator::new);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -1,28 +1,101 @@
 package ru.astondevs.util;
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 import ru.astondevs.dto.UserDto;
 import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserUpdatedEventDto;
 import ru.astondevs.dto.enums.EventType;
 import ru.astondevs.entity.Role;
 import ru.astondevs.entity.User;
+import ru.astondevs.errors.EmptyFieldException;
+import ru.astondevs.errors.InvalidPatchException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 @Component
 public class UserMapper {
+    private static final PropertyCopier<User, UserEventDto> EVENT_COPIER =
+            PropertyCopier.of(User.class, UserEventDto.class);
 
     public User convertDtoToEntity(UserDto dto, Role role) {
        return new User(dto.getId(), dto.getName(),dto.getEmail(),dto.getAge(), role);
     }
 
     public UserDto convertEntityToDto(User user) {
-        return new UserDto(user.getId(), user.getName(),user.getEmail(),user.getAge(),user.getRole().getId());
+        UserDto dto = new UserDto(user.getId(), user.getName(),user.getEmail(),user.getAge(),user.getRole().getId());
+        dto.setVersion(user.getVersion());
+        return dto;
     }
 
     public UserEventDto convertEntityToEventDto(User user, EventType eventType) {
         UserEventDto eventDto = new UserEventDto();
-        BeanUtils.copyProperties(user, eventDto);
+        EVENT_COPIER.copy(user, eventDto);
         eventDto.setEventType(eventType.name());
         return eventDto;
     }
+
+    public UserUpdatedEventDto convertToUpdatedEventDto(UserDto before, UserDto after) {
+        UserUpdatedEventDto eventDto = new UserUpdatedEventDto(before.getId(), after.getEmail(),
+                after.getVersion() == null ? 0 : after.getVersion());
+        putIfChanged(eventDto, "name", before.getName(), after.getName());
+        putIfChanged(eventDto, "email", before.getEmail(), after.getEmail());
+        putIfChanged(eventDto, "age", before.getAge(), after.getAge());
+        putIfChanged(eventDto, "role_id", before.getRole_id(), after.getRole_id());
+        return eventDto;
+    }
+
+    // после массового переноса меняется только роль, остальное состояние в событии не нужно
+    public UserUpdatedEventDto convertToRoleReassignedEventDto(User user) {
+        UserUpdatedEventDto eventDto = new UserUpdatedEventDto(user.getId(), user.getEmail(), user.getVersion());
+        eventDto.getChanges().put("role_id", user.getRole().getId());
+        return eventDto;
+    }
+
+    // колонки для UPDATE: незаполненное поле UserDto означает «оставить как есть»;
+    // age — примитив, отсутствие в теле даёт 0, а 0 не бывает допустимым возрастом
+    public Map<String, Object> convertDtoToColumns(UserDto dto) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (dto.getName() != null) columns.put("name", dto.getName());
+        if (dto.getEmail() != null) columns.put("email", dto.getEmail());
+        if (dto.getAge() != 0) columns.put("age", dto.getAge());
+        if (dto.getRole_id() != null) columns.put("role_id", dto.getRole_id());
+        return columns;
+    }
+
+    // JSON Merge Patch (RFC 7396): отсутствующее поле не меняется, null удаляет значение,
+    // но все изменяемые поля пользователя обязательные, поэтому null отклоняется
+    public Map<String, Object> convertPatchToColumns(Map<String, Object> patch) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            if (value == null) throw new EmptyFieldException("Поле " + field + " пустое");
+            switch (field) {
+                case "name", "email" -> {
+                    if (!(value instanceof String)) throw invalidPatchValue(field, value);
+                    columns.put(field, value);
+                }
+                case "age" -> {
+                    if (!(value instanceof Integer)) throw invalidPatchValue(field, value);
+                    columns.put(field, value);
+                }
+                case "role_id" -> {
+                    if (!(value instanceof Integer || value instanceof Long)) throw invalidPatchValue(field, value);
+                    columns.put(field, ((Number) value).longValue());
+                }
+                default -> throw new InvalidPatchException("Поле " + field + " нельзя изменить");
+            }
+        }
+        return columns;
+    }
+
+    private static InvalidPatchException invalidPatchValue(String field, Object value) {
+        return new InvalidPatchException("Недопустимое значение поля " + field + ": " + value);
+    }
+
+    private static void putIfChanged(UserUpdatedEventDto eventDto, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) eventDto.getChanges().put(field, after);
+    }
 }
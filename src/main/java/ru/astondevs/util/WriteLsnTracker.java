@@ -0,0 +1,90 @@
+package ru.astondevs.util;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// после фиксации пишущей транзакции запоминает LSN primary и отдаёт его клиенту заголовком и cookie
+public class WriteLsnTracker {
+    private static final Logger log = Logger.getLogger(WriteLsnTracker.class.getName());
+
+    private final Duration tokenTtl;
+
+    public WriteLsnTracker(Duration tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+
+    // вызывается при каждой выдаче соединения primary, синхронизация регистрируется один раз на транзакцию;
+    // вне HTTP-запроса (планировщик, outbox relay, Kafka) токен отдать некому, и запрос LSN не выполняется
+    public void trackCurrentTransaction(Connection connection) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        HttpServletResponse response = currentResponse();
+        if (response == null) return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(connection, response);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WriteLsnTracker.this);
+            }
+        });
+    }
+
+    private void recordWrite(Connection connection, HttpServletResponse response) {
+        // потоковый ответ мог уйти клиенту, пока шла транзакция
+        if (response.isCommitted()) return;
+        long lsn;
+        try {
+            lsn = currentLsn(connection);
+        } catch (SQLException e) {
+            // запись уже зафиксирована; без токена клиент в худшем случае прочитает с отстающей реплики
+            log.log(Level.WARNING, "Не удалось получить LSN primary: " + e.getMessage(), e);
+            return;
+        }
+        // последующие чтения в этом же запросе тоже должны увидеть запись
+        ReadYourWrites.require(lsn);
+        String token = Lsn.format(lsn);
+        response.setHeader(ReadYourWrites.HEADER, token);
+        Cookie cookie = new Cookie(ReadYourWrites.COOKIE, token);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) tokenTtl.toSeconds());
+        response.addCookie(cookie);
+    }
+
+    private static HttpServletResponse currentResponse() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null && !attributes.getResponse().isCommitted()) {
+            return attributes.getResponse();
+        }
+        return null;
+    }
+
+    // соединение транзакции удерживается до её очистки, после commit оно снова в autocommit;
+    // LSN читается после фиксации, чтобы покрыть commit-запись, а не только изменённые строки
+    private static long currentLsn(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()")) {
+            rs.next();
+            return Lsn.parse(rs.getString(1));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.astondevs.util.validation;
+
+import ru.astondevs.errors.EmptyFieldException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Валидатор сущности по аннотациям {@link NotEmptyField}, {@link PositiveField}, {@link EmailField}.
+ * Правила и геттеры полей (MethodHandle) строятся один раз на класс, проверка корректного объекта не аллоцирует.
+ */
+public final class EntityValidator<T> {
+    private static final ClassValue<EntityValidator<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected EntityValidator<?> computeValue(Class<?> type) {
+            return new EntityValidator<>(type);
+        }
+    };
+
+    private final Rule[] rules;
+
+    private EntityValidator(Class<T> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к полям " + type.getName(), e);
+        }
+
+        List<Rule> rules = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            boolean notEmpty = field.isAnnotationPresent(NotEmptyField.class);
+            boolean positive = field.isAnnotationPresent(PositiveField.class);
+            boolean email = field.isAnnotationPresent(EmailField.class);
+            if (!notEmpty && !positive && !email) continue;
+
+            MethodHandle getter;
+            try {
+                getter = lookup.unreflectGetter(field);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Нет доступа к полю " + field.getName(), e);
+            }
+            String name = field.getName();
+            Class<?> fieldType = field.getType();
+
+            if (fieldType == int.class || fieldType == long.class || fieldType == short.class || fieldType == byte.class) {
+                // примитивы читаются как long без упаковки
+                rules.add(new PrimitiveNumberRule(name,
+                        getter.asType(MethodType.methodType(long.class, Object.class)), positive));
+            } else {
+                rules.add(new ObjectRule(name,
+                        getter.asType(MethodType.methodType(Object.class, Object.class)), notEmpty, positive, email));
+            }
+        }
+        this.rules = rules.toArray(new Rule[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityValidator<T> forClass(Class<T> type) {
+        return (EntityValidator<T>) CACHE.get(type);
+    }
+
+    public void validate(T entity) throws EmptyFieldException {
+        for (Rule rule : rules) {
+            rule.check(entity);
+        }
+    }
+
+    // проверка значений отдельных полей до записи, например колонок частичного UPDATE; отсутствующие поля не проверяются
+    public void validateValues(Map<String, ?> values) throws EmptyFieldException {
+        for (Rule rule : rules) {
+            if (values.containsKey(rule.name())) rule.checkValue(values.get(rule.name()));
+        }
+    }
+
+    private static EmptyFieldException empty(String field) {
+        return new EmptyFieldException("Поле " + field + " пустое");
+    }
+
+    private interface Rule {
+        String name();
+
+        void check(Object entity);
+
+        void checkValue(Object value);
+    }
+
+    private record PrimitiveNumberRule(String name, MethodHandle getter, boolean positive) implements Rule {
+        @Override
+        public void check(Object entity) {
+            long value;
+            try {
+                value = (long) getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new EmptyFieldException(e.getMessage());
+            }
+            check(value);
+        }
+
+        @Override
+        public void checkValue(Object value) {
+            if (!(value instanceof Number number)) throw empty(name);
+            check(number.longValue());
+        }
+
+        private void check(long value) {
+            // для примитива 0 означает незаполненное поле
+            if (value == 0) throw empty(name);
+            if (positive && value < 0) throw new EmptyFieldException("Поле " + name + " должно быть положительным");
+        }
+    }
+
+    private record ObjectRule(String name, MethodHandle getter, boolean notEmpty, boolean positive,
+                              boolean email) implements Rule {
+        @Override
+        public void check(Object entity) {
+            Object value;
+            try {
+                value = (Object) getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new EmptyFieldException(e.getMessage());
+            }
+            checkValue(value);
+        }
+
+        @Override
+        public void checkValue(Object value) {
+            if (value == null) {
+                if (notEmpty || positive) throw empty(name);
+                return;
+            }
+            if (value instanceof String string) {
+                if (string.isEmpty()) {
+                    if (notEmpty) throw empty(name);
+                    return;
+                }
+                if (email && !isEmail(string)) {
+                    throw new EmptyFieldException("Поле " + name + " имеет неверный формат email");
+                }
+            } else if (value instanceof Number number) {
+                double numeric = number.doubleValue();
+                if (numeric == 0 && (notEmpty || positive)) throw empty(name);
+                if (positive && numeric < 0) throw new EmptyFieldException("Поле " + name + " должно быть положительным");
+            }
+        }
+    }
+
+    // проверка без регулярных выражений: одна '@', непустая локальная часть, домен с точкой не на краях
+    static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        if (at <= 0 || at != value.lastIndexOf('@')) return false;
+        int dot = value.lastIndexOf('.');
+        if (dot < at + 2 || dot == value.length() - 1) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) return false;
+        }
+        return true;
+    }
+}
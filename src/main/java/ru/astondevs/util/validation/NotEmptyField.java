@@ -0,0 +1,12 @@
+package ru.astondevs.util.validation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// значение не null, строка не пустая, число не равно нулю
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NotEmptyField {
+}
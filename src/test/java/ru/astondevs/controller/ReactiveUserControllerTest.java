@@ -0,0 +1,122 @@
+package ru.astondevs.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.errors.UserNotFoundedException;
+import ru.astondevs.service.ReactiveUserService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveUserController.class)
+@Import(ReactiveUserControllerTest.TestConfig.class)
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Test
+    @DisplayName("GET /api/v2/users/{id} - пользователь найден")
+    void getUser_returnsUserWithETag() throws Exception {
+        UserDto user = new UserDto(1L, "user1", "user1@gmail.com", 18, 1L);
+        user.setVersion(2L);
+        when(userService.findById(1L)).thenReturn(Mono.just(user));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/users/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.name").value("user1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/users/{id} - 304 при совпадении If-None-Match")
+    void getUser_whenETagMatches_returnsNotModified() throws Exception {
+        when(userService.findVersion(5L)).thenReturn(Mono.just(3L));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/users/{id}", 5L).header("If-None-Match", "\"3\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/users/{id} - пользователь не найден")
+    void getUser_whenNotFound_returnsBadRequest() throws Exception {
+        when(userService.findById(9L)).thenReturn(Mono.error(new UserNotFoundedException("Пользователь c id 9 не найден")));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/users/{id}", 9L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Пользователь c id 9 не найден"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/users - страница пользователей")
+    void getUsers_returnsPage() throws Exception {
+        UserDto user = new UserDto(1L, "user1", "user1@gmail.com", 18, 1L);
+        when(userService.findPage(null, 1)).thenReturn(Mono.just(new UserPageDto(List.of(user), "MQ")));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/users").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].name").value("user1"))
+                .andExpect(jsonPath("$.nextCursor").value("MQ"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/users/export - выгрузка в NDJSON")
+    void exportUsers_streamsNdjson() throws Exception {
+        when(userService.streamAll()).thenReturn(Flux.just(
+                new UserDto(1L, "user1", "user1@gmail.com", 18, 1L),
+                new UserDto(2L, "user2", "user2@gmail.com", 25, 2L)));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(UserController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(containsString("\"name\":\"user2\"")));
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ReactiveUserService reactiveUserService() {
+            return Mockito.mock(ReactiveUserService.class);
+        }
+    }
+}
@@ -12,22 +12,35 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.astondevs.dto.UserBatchResultDto;
 import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.errors.EmailAlreadyExistsException;
 import ru.astondevs.errors.EmptyFieldException;
 import ru.astondevs.errors.RoleNotFoundedException;
+import ru.astondevs.errors.VersionMismatchException;
 import ru.astondevs.service.UserService;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
-@Import(UserControllerTest.TestConfig.class)
+@Import({UserControllerTest.TestConfig.class, UserLinkFactory.class})
 class UserControllerTest {
 
     @Autowired
@@ -49,16 +62,80 @@ class UserControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/users - все пользователи")
-    void getAllUsers_returnsList() throws Exception {
+    @DisplayName("GET /api/users - первая страница пользователей")
+    void getAllUsers_returnsFirstPage() throws Exception {
         List<UserDto> users = Arrays.asList(userDto1, userDto2);
-        when(userService.findAll()).thenReturn(users);
+        when(userService.findPage(null, null)).thenReturn(new UserPageDto(users, null));
 
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(users.size()))
-                .andExpect(jsonPath("$[0].name").value("user1"))
-                .andExpect(jsonPath("$[1].name").value("user2"));
+                .andExpect(jsonPath("$._embedded.userDtoList.length()").value(users.size()))
+                .andExpect(jsonPath("$._embedded.userDtoList[0].name").value("user1"))
+                .andExpect(jsonPath("$._embedded.userDtoList[1].name").value("user2"))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/users - ссылка на следующую страницу")
+    void getAllUsers_whenHasNextPage_returnsNextLink() throws Exception {
+        when(userService.findPage("MQ", 1)).thenReturn(new UserPageDto(List.of(userDto2), "Mg"));
+
+        mockMvc.perform(get("/api/users").param("after", "MQ").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.userDtoList.length()").value(1))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=Mg")));
+    }
+
+    @Test
+    @DisplayName("GET /api/users - ссылки элементов строятся по шаблону")
+    void getAllUsers_returnsItemLinks() throws Exception {
+        userDto1.setId(7L);
+        when(userService.findPage(null, null)).thenReturn(new UserPageDto(List.of(userDto1), null));
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.userDtoList[0]._links.self.href").value("http://localhost/api/users/7"))
+                .andExpect(jsonPath("$._embedded.userDtoList[0]._links.delete.href").value("http://localhost/api/users/7"))
+                .andExpect(jsonPath("$._embedded.userDtoList[0]._links.role.href").value("http://localhost/api/role/1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/users?links=none - обычный JSON без ссылок")
+    void getAllUsers_whenLinksNone_returnsPlainJson() throws Exception {
+        when(userService.findPage(null, 1)).thenReturn(new UserPageDto(List.of(userDto1), "Mg"));
+
+        mockMvc.perform(get("/api/users").param("limit", "1").param("links", "none"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.users[0].name").value("user1"))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"))
+                .andExpect(jsonPath("$._links").doesNotExist())
+                .andExpect(jsonPath("$._embedded").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/export - выгрузка в NDJSON")
+    void exportUsers_streamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(userDto1);
+            consumer.accept(userDto2);
+            return null;
+        }).when(userService).exportAll(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], UserDto.class).getName()).isEqualTo("user1");
+        assertThat(objectMapper.readValue(lines[1], UserDto.class).getName()).isEqualTo("user2");
     }
 
     @Test
@@ -74,6 +151,41 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.role_id").value(1));
     }
 
+    @Test
+    @DisplayName("GET /api/users/{id} - ETag по версии пользователя")
+    void getUser_returnsETag() throws Exception {
+        userDto2.setId(2L);
+        userDto2.setVersion(3L);
+        when(userService.findById(2L)).thenReturn(userDto2);
+
+        mockMvc.perform(get("/api/users/{id}", 2L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id} - 304 при совпадении If-None-Match")
+    void getUser_whenETagMatches_returnsNotModified() throws Exception {
+        when(userService.findVersion(3L)).thenReturn(5L);
+
+        mockMvc.perform(get("/api/users/{id}", 3L).header("If-None-Match", "W/\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/by-email - пользователь найден")
+    void getUserByEmail_returnsUser() throws Exception {
+        when(userService.findByEmail("User1@Gmail.com")).thenReturn(userDto1);
+
+        mockMvc.perform(get("/api/users/by-email").param("email", "User1@Gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("user1"))
+                .andExpect(jsonPath("$.email").value("user1@gmail.com"));
+    }
+
     @Test
     @DisplayName("POST /api/users - успешное создание")
     void createUser_returnsCreatedUser() throws Exception {
@@ -107,13 +219,104 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("Поле name пустое"));
     }
 
+    @Test
+    @DisplayName("POST /api/users/batch - результат по каждому элементу")
+    void createUsers_returnsPerItemResults() throws Exception {
+        when(userService.saveBatch(anyList())).thenReturn(List.of(
+                UserBatchResultDto.created(1L),
+                UserBatchResultDto.failed("Поле name пустое")));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userDto1, new UserDto(null, "x@gmail.com", 20, 1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Поле name пустое"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch - конфликт при вставке пакета, строки сохраняются по одной")
+    void createUsers_whenChunkConflicts_thenRetriesPerItem() throws Exception {
+        UserDto duplicate = new UserDto("dup", "dup@gmail.com", 20, 1L);
+        when(userService.saveBatch(anyList()))
+                .thenThrow(new EmailAlreadyExistsException("Пользователь c таким email уже существует"));
+        when(userService.save(any(UserDto.class))).thenAnswer(invocation -> {
+            UserDto user = invocation.getArgument(0);
+            if ("dup@gmail.com".equals(user.getEmail())) {
+                throw new EmailAlreadyExistsException("Пользователь c email dup@gmail.com уже существует");
+            }
+            return new UserDto(1L, user.getName(), user.getEmail(), user.getAge(), user.getRole_id());
+        });
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userDto1, duplicate))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Пользователь c email dup@gmail.com уже существует"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch - некорректный элемент: результаты до него и ошибка на его позиции")
+    void createUsers_whenElementMalformed_thenResultsSoFarAndError() throws Exception {
+        when(userService.saveBatch(anyList())).thenReturn(List.of(UserBatchResultDto.created(1L)));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + objectMapper.writeValueAsString(userDto1) + ", {\"age\": \"abc\"}, {}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("FAILED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch - null в массиве не попадает в пакет и получает свою ошибку")
+    void createUsers_whenElementNull_thenFailedAtItsIndex() throws Exception {
+        when(userService.saveBatch(anyList())).thenAnswer(invocation -> {
+            List<UserDto> chunk = invocation.getArgument(0);
+            return chunk.stream().map(user -> UserBatchResultDto.created(1L)).toList();
+        });
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + objectMapper.writeValueAsString(userDto1) + ", null, "
+                                + objectMapper.writeValueAsString(userDto1) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Элемент массива равен null"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].status").value("CREATED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch - тело не массив")
+    void createUsers_whenBodyIsNotArray_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto1)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("DELETE /api/users/{role_id} - успешное удаление")
     void deleteUser_returnsNoContent() throws Exception {
         mockMvc.perform(delete("/api/users/{id}", 1L))
                 .andExpect(status().isNoContent());
 
-        Mockito.verify(userService).delete(1L);
+        Mockito.verify(userService).delete(1L, null);
     }
 
     @Test
@@ -122,7 +325,7 @@ class UserControllerTest {
         UserDto updateDto = new UserDto("updatedUser", "updated@gmail.com", 28, 1L);
         UserDto returnedDto = new UserDto("updatedUser", "updated@gmail.com", 28, 1L);
 
-        when(userService.update(anyLong(), any(UserDto.class))).thenReturn(returnedDto);
+        when(userService.update(anyLong(), any(UserDto.class), isNull())).thenReturn(returnedDto);
 
         mockMvc.perform(put("/api/users/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -139,7 +342,7 @@ class UserControllerTest {
     void updateUser_whenRoleNotFound_thenThrows() throws Exception {
         UserDto updateDto = new UserDto("userUpdated", "user@gmail.com", 18, 99L);
 
-        when(userService.update(anyLong(), any(UserDto.class)))
+        when(userService.update(anyLong(), any(UserDto.class), isNull()))
                 .thenThrow(new RoleNotFoundedException("Роль не найдена"));
 
         mockMvc.perform(put("/api/users/{id}", 1L)
@@ -149,6 +352,67 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("Роль не найдена"));
     }
 
+    @Test
+    @DisplayName("PUT /api/users/{id} - 412 при несовпадении If-Match")
+    void updateUser_whenIfMatchStale_returnsPreconditionFailed() throws Exception {
+        when(userService.update(eq(4L), any(UserDto.class), eq(2L)))
+                .thenThrow(new VersionMismatchException("Версия изменилась"));
+
+        mockMvc.perform(put("/api/users/{id}", 4L)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto1)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Версия изменилась"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/users/{id} - merge-patch передаёт в сервис только указанные поля")
+    void patchUser_returnsPatchedUserWithETag() throws Exception {
+        UserDto patched = new UserDto(3L, "renamed", "user@gmail.com", 18, 1L);
+        patched.setVersion(6L);
+        when(userService.patch(3L, Map.of("name", "renamed"), 5L)).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/users/{id}", 3L)
+                        .header("If-Match", "\"5\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""))
+                .andExpect(jsonPath("$.name").value("renamed"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/users/{id} - обычный JSON не принимается")
+    void patchUser_whenPlainJson_returnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(patch("/api/users/{id}", 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/users?ids= - число удалённых пользователей")
+    void deleteUsers_returnsAffectedCount() throws Exception {
+        when(userService.deleteAll(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/users").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/reassign-role - число перенесённых пользователей")
+    void reassignRole_returnsAffectedCount() throws Exception {
+        when(userService.reassignRole(1L, 2L)).thenReturn(5);
+
+        mockMvc.perform(post("/api/users/reassign-role")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from_role_id\":1,\"to_role_id\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(5));
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -46,6 +46,7 @@ class UserDaoTest {
         props.setProperty("hibernate.connection.password", postgres.getPassword());
         props.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         props.setProperty("hibernate.hbm2ddl.auto", "none");
+        props.setProperty("hibernate.id.snowflake.node_id", "1");
 
         ConnectionManager.init(props);
 
@@ -148,4 +149,49 @@ class UserDaoTest {
         assertThatThrownBy(() -> userDao.delete(999L))
                 .isInstanceOf(UserNotFoundedException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("inUnitOfWork() - несколько вызовов DAO в одной сессии")
+    void inUnitOfWork_ShouldShareSession() {
+        List<User> saved = ConnectionManager.inUnitOfWork(() -> {
+            Role role = roleDao.findById(1L);
+            User first = userDao.save(new User("D", "d@mail.com", 20, role));
+            User second = userDao.save(new User("E", "e@mail.com", 21, role));
+            // в общей сессии повторный поиск возвращает тот же экземпляр
+            assertThat(userDao.findById(first.getId())).isSameAs(first);
+            return List.of(first, second);
+        });
+
+        assertThat(saved).allSatisfy(user -> assertThat(userDao.findById(user.getId())).isNotNull());
+    }
+
+    @Test
+    @DisplayName("inUnitOfWork() - исключение откатывает все вызовы")
+    void inUnitOfWork_ShouldRollbackAll_WhenFails() {
+        Long[] id = new Long[1];
+
+        assertThatThrownBy(() -> ConnectionManager.inUnitOfWork(() -> {
+            Role role = roleDao.findById(1L);
+            id[0] = userDao.save(new User("F", "f@mail.com", 22, role)).getId();
+            userDao.delete(999L);
+        })).isInstanceOf(UserNotFoundedException.class);
+
+        assertThat(userDao.findById(id[0])).isNull();
+    }
+
+    @Test
+    @DisplayName("executeReadOnly() - изменения прочитанных сущностей не записываются")
+    void executeReadOnly_ShouldNotFlushChanges() {
+        Role role = roleDao.findById(1L);
+        User user = userDao.save(new User("G", "g@mail.com", 23, role));
+
+        ConnectionManager.executeReadOnly(session -> {
+            User loaded = session.find(User.class, user.getId());
+            assertThat(session.isReadOnly(loaded)).isTrue();
+            loaded.setName("Changed");
+            return loaded;
+        });
+
+        assertThat(userDao.findById(user.getId()).getName()).isEqualTo("G");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.astondevs.discoveryclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeartbeatScheduleTest {
+    private final DiscoveryClientProperties properties = new DiscoveryClientProperties();
+
+    @Test
+    @DisplayName("после успеха интервал растягивается и сжимается не больше чем на долю джиттера")
+    void nextDelay_whenSuccess_thenJitteredInterval() {
+        assertThat(new HeartbeatSchedule(properties, () -> 0.0).nextDelayMillis(true)).isEqualTo(8000);
+        assertThat(new HeartbeatSchedule(properties, () -> 0.5).nextDelayMillis(true)).isEqualTo(10000);
+        assertThat(new HeartbeatSchedule(properties, () -> 1.0).nextDelayMillis(true)).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("пауза после ошибок растёт экспоненциально до максимума")
+    void nextDelay_whenFailures_thenExponentialBackoffUpToMax() {
+        HeartbeatSchedule schedule = new HeartbeatSchedule(properties, () -> 1.0);
+
+        assertThat(schedule.nextDelayMillis(false)).isEqualTo(1000);
+        assertThat(schedule.nextDelayMillis(false)).isEqualTo(2000);
+        assertThat(schedule.nextDelayMillis(false)).isEqualTo(4000);
+        for (int i = 0; i < 40; i++) schedule.nextDelayMillis(false);
+        assertThat(schedule.nextDelayMillis(false)).isEqualTo(30000);
+    }
+
+    @Test
+    @DisplayName("успех сбрасывает паузу до начальной")
+    void nextDelay_whenSuccessAfterFailures_thenBackoffResets() {
+        HeartbeatSchedule schedule = new HeartbeatSchedule(properties, () -> 0.0);
+        schedule.nextDelayMillis(false);
+        schedule.nextDelayMillis(false);
+        schedule.nextDelayMillis(true);
+
+        assertThat(schedule.nextDelayMillis(false)).isEqualTo(500);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.astondevs.discoveryclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceLoadMonitorTest {
+    private final InstanceLoadMonitor monitor = new InstanceLoadMonitor();
+
+    @Test
+    @DisplayName("p99 и ожидание пула считаются только за интервал после предыдущего снимка")
+    void snapshot_countsOnlySincePreviousSnapshot() {
+        for (int i = 1; i <= 100; i++) {
+            monitor.requestStarted();
+            monitor.requestFinished(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        monitor.create("test", null).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        monitor.create("test", null).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(10));
+
+        InstanceLoad first = monitor.snapshot();
+        InstanceLoad second = monitor.snapshot();
+
+        assertThat(first.p99LatencyMs()).isEqualTo(99);
+        assertThat(first.poolWaitMs()).isEqualTo(20);
+        assertThat(second.p99LatencyMs()).isZero();
+        assertThat(second.poolWaitMs()).isZero();
+    }
+
+    @Test
+    @DisplayName("незавершённые запросы учитываются как запросы в работе")
+    void snapshot_reportsInFlightRequests() {
+        monitor.requestStarted();
+        monitor.requestStarted();
+        monitor.requestFinished(1);
+
+        InstanceLoad load = monitor.snapshot();
+
+        assertThat(load.inFlightRequests()).isEqualTo(1);
+        assertThat(load.heapUsedRatio()).isBetween(0.0, 1.0);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.astondevs.discoveryclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverloadDetectorTest {
+    private static final InstanceLoad IDLE = new InstanceLoad(1, 20, 0, 0.3);
+    private static final InstanceLoad SLOW = new InstanceLoad(10, 5000, 0, 0.3);
+    // ниже порога, но выше порога восстановления (2000 * 0.8)
+    private static final InstanceLoad NEAR_LIMIT = new InstanceLoad(10, 1800, 0, 0.3);
+
+    private final OverloadDetector detector = new OverloadDetector(new InstanceLoadProperties());
+
+    @Test
+    @DisplayName("одиночный всплеск не выводит экземпляр из работы")
+    void update_whenSingleSpike_thenStaysUp() {
+        assertThat(detector.update(SLOW)).isFalse();
+        assertThat(detector.update(IDLE)).isFalse();
+        assertThat(detector.update(SLOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("перегрузка подряд несколько heartbeat - экземпляр выводится из работы")
+    void update_whenOverloadedInARow_thenDraining() {
+        detector.update(SLOW);
+
+        assertThat(detector.update(SLOW)).isTrue();
+        assertThat(detector.isDraining()).isTrue();
+    }
+
+    @Test
+    @DisplayName("нагрузка чуть ниже порога не возвращает экземпляр в работу")
+    void update_whenBelowThresholdButAboveRecovery_thenStillDraining() {
+        detector.update(SLOW);
+        detector.update(SLOW);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(detector.update(NEAR_LIMIT)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("восстановление подтверждается несколькими heartbeat подряд")
+    void update_whenRecoveredInARow_thenUp() {
+        detector.update(SLOW);
+        detector.update(SLOW);
+
+        assertThat(detector.update(IDLE)).isTrue();
+        assertThat(detector.update(IDLE)).isTrue();
+        assertThat(detector.update(IDLE)).isFalse();
+    }
+}
@@ -0,0 +1,131 @@
+package ru.astondevs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.astondevs.dto.RoleDto;
+import ru.astondevs.entity.Role;
+import ru.astondevs.errors.RoleNotFoundedException;
+import ru.astondevs.repository.RoleRepository;
+import ru.astondevs.service.impl.RoleServiceImpl;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleServiceTest {
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RoleServiceImpl roleService;
+
+    private Role admin;
+    private Role user;
+
+    @BeforeEach
+    void init() {
+        admin = new Role("admin");
+        admin.setId(1L);
+        user = new Role("user");
+        user.setId(2L);
+    }
+
+    @Test
+    @DisplayName("роли читаются из памяти после первой загрузки")
+    void findById_whenSnapshotLoaded_thenNoRepositoryCalls() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user));
+
+        roleService.findById(1L);
+        roleService.findEntityById(2L);
+        roleService.findAll();
+        roleService.findEntitiesByIds(Set.of(1L, 2L));
+
+        verify(roleRepository, times(1)).findAll();
+        verifyNoMoreInteractions(roleRepository);
+    }
+
+    @Test
+    @DisplayName("сущность отдаётся копией")
+    void findEntityById_whenCallerMutatesEntity_thenSnapshotUnchanged() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+
+        roleService.findEntityById(1L).setName("changed");
+
+        assertThat(roleService.findById(1L).getName()).isEqualTo("admin");
+    }
+
+    @Test
+    @DisplayName("снимок обновляется после сохранения роли")
+    void save_whenRoleSaved_thenSnapshotRefreshed() {
+        Role moderator = new Role("moderator");
+        moderator.setId(3L);
+        when(roleRepository.findAll()).thenReturn(List.of(admin)).thenReturn(List.of(admin, moderator));
+        when(roleRepository.save(any(Role.class))).thenReturn(moderator);
+
+        roleService.findAll();
+        roleService.save(new RoleDto("moderator"));
+
+        assertThat(roleService.findAll()).extracting(RoleDto::getName).containsExactly("admin", "moderator");
+    }
+
+    @Test
+    @DisplayName("внутри транзакции снимок перечитывается только после commit")
+    void delete_whenInTransaction_thenSnapshotRefreshedAfterCommit() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user)).thenReturn(List.of(admin));
+        roleService.findAll();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            roleService.delete(2L);
+
+            verify(roleRepository).delete(any(Role.class));
+            assertThat(roleService.findAll()).hasSize(2);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(roleService.findAll()).extracting(RoleDto::getName).containsExactly("admin");
+    }
+
+    @Test
+    @DisplayName("ETag списка ролей меняется вместе со снимком")
+    void findAllETag_whenSnapshotChanges_thenETagChanges() {
+        Role moderator = new Role("moderator");
+        moderator.setId(3L);
+        when(roleRepository.findAll()).thenReturn(List.of(admin)).thenReturn(List.of(admin, moderator));
+        when(roleRepository.save(any(Role.class))).thenReturn(moderator);
+
+        String before = roleService.findAllETag();
+        assertThat(roleService.findAllETag()).isEqualTo(before);
+        roleService.save(new RoleDto("moderator"));
+
+        assertThat(roleService.findAllETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("роль не найдена")
+    void findById_whenRoleMissing_thenThrow() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+
+        assertThatThrownBy(() -> roleService.findById(99L))
+                .isInstanceOf(RoleNotFoundedException.class);
+        assertThat(roleService.findEntitiesByIds(Set.of(99L))).isEmpty();
+    }
+}
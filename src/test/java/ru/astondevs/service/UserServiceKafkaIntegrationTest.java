@@ -12,18 +12,16 @@ import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import ru.astondevs.dto.UserDto;
-import ru.astondevs.entity.User;
-import ru.astondevs.repository.UserRepository;
 import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.OutboxRelay;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "user-service.id.node-id=1")
 @EmbeddedKafka(partitions = 1, topics = { "user.created", "user.deleted" })
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class UserServiceKafkaIntegrationTest {
@@ -34,8 +32,9 @@ class UserServiceKafkaIntegrationTest {
     @Autowired
     private UserServiceImpl userService;
 
+    // события уходят в Kafka через outbox: тест сам запускает relay, а не ждёт планировщик
     @Autowired
-    private UserRepository userRepository;
+    private OutboxRelay outboxRelay;
 
     private Consumer<String, UserDto> consumer;
 
@@ -65,13 +64,14 @@ class UserServiceKafkaIntegrationTest {
         dto.setAge(30);
         dto.setRole_id(1L);
 
-        userService.save(dto);
+        UserDto saved = userService.save(dto);
+        outboxRelay.relay();
 
         ConsumerRecord<String, UserDto> record =
                 KafkaTestUtils.getSingleRecord(consumer, "user.created", Duration.ofSeconds(5));
 
         assertNotNull(record);
-        assertEquals("john.doe@mail.com", record.key());
+        assertEquals(String.valueOf(saved.getId()), record.key());
         assertEquals(dto.getEmail(), record.value().getEmail());
         assertEquals(dto.getName(), record.value().getName());
     }
@@ -84,15 +84,15 @@ class UserServiceKafkaIntegrationTest {
         dto.setAge(30);
         dto.setRole_id(1L);
 
-        userService.save(dto);
-        User user = userRepository.findUserByEmail("test+@mail.com").orElseThrow(NoSuchElementException::new);
-        userService.delete(user.getId());
+        UserDto saved = userService.save(dto);
+        userService.delete(saved.getId());
+        outboxRelay.relay();
 
         ConsumerRecord<String, UserDto> record =
                 KafkaTestUtils.getSingleRecord(consumer, "user.deleted", Duration.ofSeconds(5));
 
         assertNotNull(record);
-        assertEquals("test+@mail.com", record.key());
+        assertEquals(String.valueOf(saved.getId()), record.key());
         assertEquals(dto.getEmail(), record.value().getEmail());
         assertEquals(dto.getName(), record.value().getName());
     }
@@ -11,26 +11,47 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.astondevs.dto.UserBatchResultDto;
 import ru.astondevs.dto.UserDto;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserPageDto;
+import ru.astondevs.dto.UserUpdatedEventDto;
+import ru.astondevs.dto.enums.EventType;
 import ru.astondevs.entity.Role;
 import ru.astondevs.entity.User;
+import ru.astondevs.errors.BulkRequestException;
+import ru.astondevs.errors.EmailAlreadyExistsException;
 import ru.astondevs.errors.EmptyFieldException;
+import ru.astondevs.errors.InvalidCursorException;
+import ru.astondevs.errors.InvalidPatchException;
 import ru.astondevs.errors.RoleNotFoundedException;
 import ru.astondevs.errors.UserNotFoundedException;
+import ru.astondevs.errors.VersionMismatchException;
+import ru.astondevs.repository.UserChange;
 import ru.astondevs.repository.UserRepository;
 import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.CursorCodec;
+import ru.astondevs.util.OutboxWriter;
 import ru.astondevs.util.UserMapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
 import static org.mockito.Mockito.*;
+import static ru.astondevs.dto.enums.KafkaTopics.USER_EVENT;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -40,6 +61,9 @@ class UserServiceTest {
     @Mock
     private RoleInternalService roleService;
 
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @Spy
     private UserMapper mapper = new UserMapper();
 
@@ -48,7 +72,6 @@ class UserServiceTest {
 
     private UserDto userDto;
     private User userEntity;
-    private final List<User> userList = new ArrayList<>();
     private Role roleUser;
 
     private static Stream<Arguments> invalidUserProvider() {
@@ -66,7 +89,10 @@ class UserServiceTest {
         userDto = new UserDto("user", "user@gmail.com", 18, 1L);
         userEntity = mapper.convertDtoToEntity(userDto, roleUser);
         userEntity.setId(1L);
-        userList.add(userEntity);
+    }
+
+    private UserDto storedDto() {
+        return new UserDto(1L, "user", "user@gmail.com", 18, 1L, userEntity.getVersion());
     }
 
     @Nested
@@ -75,8 +101,8 @@ class UserServiceTest {
         @Test
         @DisplayName("позитивное сохранение")
         void save_whenValidUserDto_thenReturnSavedUserDto() {
-            when(roleService.findEntityById(userDto.getRole_id())).thenReturn(roleUser);
-            when(userRepository.save(any(User.class))).thenReturn(userEntity);
+            when(roleService.referenceById(userDto.getRole_id())).thenReturn(roleUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(userEntity);
 
             UserDto result = userService.save(userDto);
 
@@ -84,19 +110,45 @@ class UserServiceTest {
                     .isNotNull()
                     .extracting(UserDto::getName, UserDto::getEmail, UserDto::getAge, UserDto::getRole_id)
                     .containsExactly("user", "user@gmail.com", 18, 1L);
-            verify(roleService).findEntityById(userDto.getRole_id());
-            verify(userRepository).save(argThat(user ->
+            verify(roleService).referenceById(userDto.getRole_id());
+            verify(userRepository).saveAndFlush(argThat(user ->
                     "user".equals(user.getName()) &&
                             "user@gmail.com".equals(user.getEmail()) &&
                             user.getAge() == 18
             ));
+            verify(outboxWriter).enqueue(eq(USER_EVENT.name), eq(1L),
+                    eq(EventType.CREATED.name()), any(UserEventDto.class));
+        }
+
+        @Test
+        @DisplayName("email уже занят")
+        void save_whenEmailTaken_thenThrowEmailAlreadyExistsException() {
+            when(roleService.referenceById(userDto.getRole_id())).thenReturn(roleUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                    new ConstraintViolationException("duplicate", null, "ux_users_email_lower")));
+
+            assertThatThrownBy(() -> userService.save(userDto))
+                    .isInstanceOf(EmailAlreadyExistsException.class);
+        }
+
+        @Test
+        @DisplayName("роль не найдена — нарушение внешнего ключа")
+        void save_whenRoleMissing_thenThrowRoleNotFoundedException() {
+            when(roleService.referenceById(userDto.getRole_id())).thenReturn(roleUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("fk",
+                    new ConstraintViolationException("fk", null, "fk_user_role")));
+
+            assertThatThrownBy(() -> userService.save(userDto))
+                    .isInstanceOf(RoleNotFoundedException.class)
+                    .hasMessage("Роль c id 1 не найден");
+            verifyNoInteractions(outboxWriter);
         }
 
         @DisplayName("негативный тест параметризованный")
         @ParameterizedTest(name = "negative save() → {1}")
         @MethodSource("ru.astondevs.service.UserServiceTest#invalidUserProvider")
         void save_whenInvalidUserDto_thenThrowsException(UserDto invalidDto, String expectedMessage) {
-            when(roleService.findEntityById(invalidDto.getRole_id())).thenReturn(roleUser);
+            when(roleService.referenceById(invalidDto.getRole_id())).thenReturn(roleUser);
 
             assertThatThrownBy(() -> userService.save(invalidDto))
                     .isInstanceOf(EmptyFieldException.class)
@@ -104,6 +156,75 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Метод saveBatch()")
+    class SaveBatchTests {
+
+        @Test
+        @DisplayName("роли загружаются один раз, ошибки возвращаются по каждому элементу")
+        void saveBatch_whenSomeInvalid_thenReportPerItem() {
+            List<UserDto> batch = List.of(
+                    new UserDto("user1", "user1@gmail.com", 18, 1L),
+                    new UserDto(null, "user2@gmail.com", 18, 1L),
+                    new UserDto("user3", "user3@gmail.com", 18, 99L));
+            when(roleService.findEntitiesByIds(Set.of(1L, 99L))).thenReturn(Map.of(1L, roleUser));
+            when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+                List<User> users = invocation.getArgument(0);
+                users.forEach(user -> user.setId(10L));
+                return users;
+            });
+
+            List<UserBatchResultDto> result = userService.saveBatch(batch);
+
+            assertThat(result)
+                    .extracting(UserBatchResultDto::getStatus, UserBatchResultDto::getId, UserBatchResultDto::getError)
+                    .containsExactly(
+                            tuple(UserBatchResultDto.CREATED, 10L, null),
+                            tuple(UserBatchResultDto.FAILED, null, "Поле name пустое"),
+                            tuple(UserBatchResultDto.FAILED, null, "Роль c id 99 не найден"));
+            verify(roleService, times(1)).findEntitiesByIds(anyCollection());
+            verify(userRepository).saveAllAndFlush(argThat((List<User> users) -> users.size() == 1));
+        }
+
+        @Test
+        @DisplayName("повторный email внутри пакета и уже занятый email отклоняются до записи")
+        void saveBatch_whenDuplicateEmails_thenRejectBeforeFlush() {
+            List<UserDto> batch = List.of(
+                    new UserDto("user1", "user1@gmail.com", 18, 1L),
+                    new UserDto("user2", "USER1@gmail.com", 18, 1L),
+                    new UserDto("user3", "taken@gmail.com", 18, 1L));
+            when(roleService.findEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, roleUser));
+            when(userRepository.findExistingEmails(Set.of("user1@gmail.com", "taken@gmail.com")))
+                    .thenReturn(Set.of("taken@gmail.com"));
+            when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+                List<User> users = invocation.getArgument(0);
+                users.forEach(user -> user.setId(10L));
+                return users;
+            });
+
+            List<UserBatchResultDto> result = userService.saveBatch(batch);
+
+            assertThat(result)
+                    .extracting(UserBatchResultDto::getStatus, UserBatchResultDto::getError)
+                    .containsExactly(
+                            tuple(UserBatchResultDto.CREATED, null),
+                            tuple(UserBatchResultDto.FAILED, "Пользователь c email USER1@gmail.com уже существует"),
+                            tuple(UserBatchResultDto.FAILED, "Пользователь c email taken@gmail.com уже существует"));
+            verify(userRepository).saveAllAndFlush(argThat((List<User> users) -> users.size() == 1));
+        }
+
+        @Test
+        @DisplayName("нарушение уникальности при вставке пакета переводится в EmailAlreadyExistsException")
+        void saveBatch_whenUniqueViolationOnFlush_thenTranslate() {
+            when(roleService.findEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, roleUser));
+            when(userRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate",
+                    new ConstraintViolationException("duplicate", null, "ux_users_email_lower")));
+
+            assertThatThrownBy(() -> userService.saveBatch(List.of(new UserDto("user1", "user1@gmail.com", 18, 1L))))
+                    .isInstanceOf(EmailAlreadyExistsException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Метод delete()")
     class DeleteTests {
@@ -111,18 +232,94 @@ class UserServiceTest {
         @Test
         @DisplayName("позитивное удаление")
         void delete_whenValidUserId_thenDelete() {
-            when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(userEntity));
-            doNothing().when(userRepository).delete(userEntity);
+            when(userRepository.deleteReturning(1L, null)).thenReturn(Optional.of(userEntity));
             userService.delete(1L);
-            verify(userRepository).delete(userEntity);
+            verify(userRepository, never()).findById(anyLong());
+            verify(outboxWriter).enqueue(eq(USER_EVENT.name), eq(1L),
+                    eq(EventType.DELETED.name()), any(UserEventDto.class));
         }
 
         @Test
         @DisplayName("негативное удаление")
         void delete_whenValidUserDto_thenThrowNotFoundedException() {
+            when(userRepository.deleteReturning(null, null)).thenReturn(Optional.empty());
             assertThatThrownBy(() -> userService.delete(null))
                     .isInstanceOf(UserNotFoundedException.class);
         }
+
+        @Test
+        @DisplayName("негативный тест версия из If-Match устарела")
+        void delete_whenVersionMismatch_thenThrowVersionMismatchException() {
+            when(userRepository.deleteReturning(1L, 2L)).thenReturn(Optional.empty());
+            when(userRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+            assertThatThrownBy(() -> userService.delete(1L, 2L))
+                    .isInstanceOf(VersionMismatchException.class);
+            verifyNoInteractions(outboxWriter);
+        }
+    }
+
+    @Nested
+    @DisplayName("Массовые операции")
+    class BulkTests {
+
+        @Test
+        @DisplayName("удаление списком — один запрос и один пакет событий")
+        void deleteAll_whenIdsGiven_thenSingleStatementAndBatchEvents() {
+            when(userRepository.deleteAllReturning(Set.of(1L, 2L))).thenReturn(List.of(userEntity));
+
+            int affected = userService.deleteAll(List.of(1L, 2L, 1L));
+
+            assertThat(affected).isEqualTo(1);
+            verify(outboxWriter).enqueueAll(eq(USER_EVENT.name), eq(EventType.DELETED.name()),
+                    argThat((List<UserEventDto> events) -> events.size() == 1 && events.get(0).getId() == 1L),
+                    any());
+        }
+
+        @Test
+        @DisplayName("негативный тест пустой список")
+        void deleteAll_whenEmpty_thenThrowBulkRequestException() {
+            assertThatThrownBy(() -> userService.deleteAll(List.of()))
+                    .isInstanceOf(BulkRequestException.class);
+            verifyNoInteractions(userRepository, outboxWriter);
+        }
+
+        @Test
+        @DisplayName("перенос роли публикует изменение role_id")
+        void reassignRole_whenUsersMoved_thenRoleChangeEvents() {
+            Role admin = new Role("admin");
+            admin.setId(2L);
+            userEntity.setRole(admin);
+            userEntity.setVersion(4L);
+            when(userRepository.reassignRoleReturning(1L, 2L)).thenReturn(List.of(userEntity));
+
+            int affected = userService.reassignRole(1L, 2L);
+
+            assertThat(affected).isEqualTo(1);
+            verify(outboxWriter).enqueueAll(eq(USER_EVENT.name), eq(EventType.UPDATED.name()),
+                    argThat((List<UserUpdatedEventDto> events) -> events.size() == 1
+                            && events.get(0).getVersion() == 4L
+                            && events.get(0).getChanges().equals(Map.of("role_id", 2L))),
+                    any());
+        }
+
+        @Test
+        @DisplayName("перенос в ту же роль ничего не пишет")
+        void reassignRole_whenSameRole_thenNoStatement() {
+            assertThat(userService.reassignRole(1L, 1L)).isZero();
+            verifyNoInteractions(userRepository, outboxWriter);
+        }
+
+        @Test
+        @DisplayName("негативный тест новая роль не существует")
+        void reassignRole_whenTargetRoleMissing_thenThrowRoleNotFoundedException() {
+            when(userRepository.reassignRoleReturning(1L, 99L)).thenThrow(new DataIntegrityViolationException("fk",
+                    new ConstraintViolationException("fk", null, "fk_user_role")));
+
+            assertThatThrownBy(() -> userService.reassignRole(1L, 99L))
+                    .isInstanceOf(RoleNotFoundedException.class);
+            verifyNoInteractions(outboxWriter);
+        }
     }
 
     @Nested
@@ -132,7 +329,7 @@ class UserServiceTest {
         @Test
         @DisplayName("позитивный поиск")
         void findAll_whenDataBaseHaveOneUser_thenReturnUser() {
-            when(userRepository.findAll()).thenReturn(userList);
+            when(userRepository.findAllDtos()).thenReturn(List.of(storedDto()));
 
             List<UserDto> result = userService.findAll();
 
@@ -141,7 +338,8 @@ class UserServiceTest {
                     .hasSize(1)
                     .extracting(UserDto::getName, UserDto::getEmail, UserDto::getAge, UserDto::getRole_id)
                     .containsExactly(tuple("user", "user@gmail.com", 18, 1L));
-            verify(userRepository).findAll();
+            verify(userRepository).findAllDtos();
+            verify(userRepository, never()).findAll();
         }
 
         @Test
@@ -152,13 +350,77 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Метод findPage()")
+    class FindPageTests {
+
+        @Test
+        @DisplayName("первая страница без курсора")
+        void findPage_whenNoCursor_thenReadFromStart() {
+            when(userRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(storedDto()));
+
+            UserPageDto result = userService.findPage(null, null);
+
+            assertThat(result.getUsers()).hasSize(1);
+            assertThat(result.getNextCursor()).isNull();
+            verify(userRepository).findPageAfter(0L, PageRequest.ofSize(UserServiceImpl.DEFAULT_PAGE_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("курсор следующей страницы")
+        void findPage_whenMoreRowsThanLimit_thenReturnNextCursor() {
+            UserDto second = new UserDto(2L, "user2", "user2@gmail.com", 20, 1L);
+            when(userRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(storedDto(), second));
+
+            UserPageDto result = userService.findPage(null, 1);
+
+            assertThat(result.getUsers()).extracting(UserDto::getId).containsExactly(1L);
+            assertThat(CursorCodec.decode(result.getNextCursor())).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("размер страницы ограничен сверху")
+        void findPage_whenLimitTooLarge_thenClampToMax() {
+            when(userRepository.findPageAfter(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+            userService.findPage(CursorCodec.encode(1L), 100_000);
+
+            verify(userRepository).findPageAfter(1L, PageRequest.ofSize(UserServiceImpl.MAX_PAGE_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("некорректный курсор")
+        void findPage_whenCursorInvalid_thenThrowInvalidCursorException() {
+            assertThatThrownBy(() -> userService.findPage("не-курсор", null))
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Метод exportAll()")
+    class ExportAllTests {
+
+        @Test
+        @DisplayName("все пользователи передаются потребителю")
+        void exportAll_whenUsersExist_thenConsumerReceivesDtos() {
+            when(userRepository.streamAll()).thenReturn(Stream.of(storedDto()));
+            List<UserDto> exported = new ArrayList<>();
+
+            userService.exportAll(exported::add);
+
+            assertThat(exported)
+                    .extracting(UserDto::getId, UserDto::getName, UserDto::getRole_id)
+                    .containsExactly(tuple(1L, "user", 1L));
+        }
+    }
+
     @Nested
     @DisplayName("Метод findById()")
     class FindById {
         @Test
         @DisplayName("позитивный тест")
         void findById_whenDataBaseHaveUser_thenReturnUser() {
-            when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(userEntity));
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
 
             UserDto result = userService.findById(1L);
 
@@ -166,7 +428,8 @@ class UserServiceTest {
                     .isNotNull()
                     .extracting(UserDto::getName, UserDto::getEmail, UserDto::getAge, UserDto::getRole_id)
                     .containsExactly("user", "user@gmail.com", 18, 1L);
-            verify(userRepository).findById(1L);
+            verify(userRepository).findDtoById(1L);
+            verify(userRepository, never()).findById(anyLong());
         }
 
         @Test
@@ -177,6 +440,28 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Метод findByEmail()")
+    class FindByEmail {
+        @Test
+        @DisplayName("позитивный тест")
+        void findByEmail_whenUserExists_thenReturnUser() {
+            when(userRepository.findDtoByEmail("User@Gmail.com")).thenReturn(Optional.of(storedDto()));
+
+            UserDto result = userService.findByEmail("User@Gmail.com");
+
+            assertThat(result.getId()).isEqualTo(1L);
+            assertThat(result.getEmail()).isEqualTo("user@gmail.com");
+        }
+
+        @Test
+        @DisplayName("негативный тест")
+        void findByEmail_whenUserNotFound_thenThrowUserNotFoundedException() {
+            assertThatThrownBy(() -> userService.findByEmail("missing@gmail.com"))
+                    .isInstanceOf(UserNotFoundedException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Метод update()")
     class Update {
@@ -185,10 +470,12 @@ class UserServiceTest {
         void update_whenValidUserDto_thenReturnUpdatedUserDto() {
             UserDto userUpdateDto = new UserDto("userUpdated", "user@gmail.com", 18, 1L);
             User userEntityUpdate = mapper.convertDtoToEntity(userUpdateDto, roleUser);
+            userEntityUpdate.setId(1L);
+            userEntityUpdate.setVersion(1L);
 
-            when(roleService.findEntityById(userUpdateDto.getRole_id())).thenReturn(roleUser);
-            when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(userEntity));
-            when(userRepository.save(any(User.class))).thenReturn(userEntityUpdate);
+            when(userRepository.updateReturning(1L,
+                    Map.of("name", "userUpdated", "email", "user@gmail.com", "age", 18, "role_id", 1L), null))
+                    .thenReturn(Optional.of(new UserChange(userEntity, userEntityUpdate)));
 
             UserDto result = userService.update(1L, userUpdateDto);
 
@@ -196,20 +483,89 @@ class UserServiceTest {
                     .isNotNull()
                     .extracting(UserDto::getName, UserDto::getEmail, UserDto::getAge, UserDto::getRole_id)
                     .containsExactly("userUpdated", "user@gmail.com", 18, 1L);
+            verify(userRepository, never()).findById(anyLong());
+            verifyNoInteractions(roleService);
+            verify(outboxWriter).enqueue(eq(USER_EVENT.name), eq(1L),
+                    eq(EventType.UPDATED.name()),
+                    argThat((UserUpdatedEventDto event) -> event.getId() == 1L && event.getVersion() == 1L
+                            && event.getChanges().equals(Map.of("name", "userUpdated"))));
+        }
 
-            verify(roleService).findEntityById(userUpdateDto.getRole_id());
-            verify(userRepository).save(argThat(user ->
-                    "userUpdated".equals(user.getName()) &&
-                            "user@gmail.com".equals(user.getEmail()) &&
-                            user.getAge() == 18
-            ));
+        @Test
+        @DisplayName("событие не публикуется, если поля не изменились")
+        void update_whenNothingChanged_thenNoEvent() {
+            UserDto sameDto = new UserDto("user", "user@gmail.com", 18, 1L);
+            when(userRepository.updateReturning(eq(1L), anyMap(), isNull())).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
+
+            UserDto result = userService.update(1L, sameDto);
+
+            assertThat(result.getName()).isEqualTo("user");
+            verifyNoInteractions(outboxWriter);
+        }
+
+        @Test
+        @DisplayName("тело без age не затирает сохранённый возраст")
+        void update_whenAgeMissing_thenAgeNotWritten() {
+            UserDto withoutAge = new UserDto();
+            withoutAge.setName("renamed");
+            when(userRepository.updateReturning(eq(1L), anyMap(), isNull())).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
+
+            userService.update(1L, withoutAge);
+
+            verify(userRepository).updateReturning(1L, Map.of("name", "renamed"), null);
+        }
 
+        @Test
+        @DisplayName("негативный тест некорректные значения отклоняются до UPDATE")
+        void update_whenValuesInvalid_thenThrowBeforeWrite() {
+            UserDto invalidDto = new UserDto("user", "user@gmail", 18, 1L);
+
+            assertThatThrownBy(() -> userService.update(1L, invalidDto))
+                    .isInstanceOf(EmptyFieldException.class)
+                    .hasMessage("Поле email имеет неверный формат email");
+            verify(userRepository, never()).updateReturning(anyLong(), anyMap(), any());
+            verifyNoInteractions(outboxWriter);
+        }
+
+        @Test
+        @DisplayName("слияние последовательных изменений")
+        void updatedEvent_merge_thenLaterValuesWin() {
+            UserUpdatedEventDto first = new UserUpdatedEventDto(1L, "old@gmail.com", 1L);
+            first.getChanges().put("name", "first");
+            first.getChanges().put("age", 20);
+            UserUpdatedEventDto second = new UserUpdatedEventDto(1L, "new@gmail.com", 2L);
+            second.getChanges().put("name", "second");
+            second.getChanges().put("email", "new@gmail.com");
+
+            first.merge(second);
+
+            assertThat(first.getChanges())
+                    .containsExactlyInAnyOrderEntriesOf(Map.of("name", "second", "age", 20, "email", "new@gmail.com"));
+            assertThat(first.getVersion()).isEqualTo(2L);
+            assertThat(first.getEmail()).isEqualTo("new@gmail.com");
+        }
+
+        @Test
+        @DisplayName("негативный тест версия из If-Match устарела")
+        void update_whenVersionMismatch_thenThrowVersionMismatchException() {
+            userEntity.setVersion(3L);
+            when(userRepository.updateReturning(eq(1L), anyMap(), eq(2L))).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
+
+            assertThatThrownBy(() -> userService.update(1L, userDto, 2L))
+                    .isInstanceOf(VersionMismatchException.class)
+                    .hasMessageContaining("текущая 3");
+            verifyNoInteractions(outboxWriter);
         }
 
         @Test
         @DisplayName("негативный тест пользователь не найден")
         void update_whenUserNotFound_thenThrowUserNotFoundedException() {
             UserDto userUpdateDto = new UserDto("userUpdated", "user@gmail.com", 18, 1L);
+            when(userRepository.updateReturning(eq(100L), anyMap(), isNull())).thenReturn(Optional.empty());
+
             assertThatThrownBy(() -> userService.update(100L, userUpdateDto))
                     .isInstanceOf(UserNotFoundedException.class);
         }
@@ -218,13 +574,77 @@ class UserServiceTest {
         @DisplayName("негативный тест роль не найдена")
         void update_whenRoleNotFound_thenThrowRoleNotFoundedException() {
             UserDto userUpdateDto = new UserDto("userUpdated", "user@gmail.com", 18, 99L);
-
-            when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(userEntity));
-            when(roleService.findEntityById(99L)).thenThrow(new RoleNotFoundedException("Роль не найдена"));
+            when(userRepository.updateReturning(eq(1L), anyMap(), isNull())).thenThrow(new DataIntegrityViolationException("fk",
+                    new ConstraintViolationException("fk", null, "fk_user_role")));
 
             assertThatThrownBy(() -> userService.update(1L, userUpdateDto))
-                    .isInstanceOf(RoleNotFoundedException.class);
+                    .isInstanceOf(RoleNotFoundedException.class)
+                    .hasMessage("Роль c id 99 не найден");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Метод patch()")
+    class Patch {
+        @Test
+        @DisplayName("в UPDATE попадают только поля из патча")
+        void patch_whenOneField_thenOnlyThatColumnUpdated() {
+            User patched = mapper.convertDtoToEntity(new UserDto("renamed", "user@gmail.com", 18, 1L), roleUser);
+            patched.setId(1L);
+            patched.setVersion(1L);
+            when(userRepository.updateReturning(1L, Map.of("name", "renamed"), 0L))
+                    .thenReturn(Optional.of(new UserChange(userEntity, patched)));
+
+            UserDto result = userService.patch(1L, Map.of("name", "renamed"), 0L);
+
+            assertThat(result.getName()).isEqualTo("renamed");
+            verify(outboxWriter).enqueue(eq(USER_EVENT.name), eq(1L),
+                    eq(EventType.UPDATED.name()),
+                    argThat((UserUpdatedEventDto event) -> event.getChanges().equals(Map.of("name", "renamed"))));
         }
 
+        @Test
+        @DisplayName("пустой патч не пишет в базу и не публикует событие")
+        void patch_whenEmpty_thenNoWriteAndNoEvent() {
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
+
+            UserDto result = userService.patch(1L, Map.of(), null);
+
+            assertThat(result.getEmail()).isEqualTo("user@gmail.com");
+            verify(userRepository, never()).updateReturning(anyLong(), anyMap(), any());
+            verifyNoInteractions(outboxWriter);
+        }
+
+        @Test
+        @DisplayName("числовой role_id приводится к Long")
+        void patch_whenRoleIdInteger_thenColumnIsLong() {
+            when(userRepository.updateReturning(1L, Map.of("role_id", 2L), null)).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(storedDto()));
+
+            userService.patch(1L, Map.of("role_id", 2), null);
+
+            verify(userRepository).updateReturning(1L, Map.of("role_id", 2L), null);
+        }
+
+        @Test
+        @DisplayName("негативный тест null для обязательного поля")
+        void patch_whenNullValue_thenThrowEmptyFieldException() {
+            Map<String, Object> patch = new HashMap<>();
+            patch.put("email", null);
+
+            assertThatThrownBy(() -> userService.patch(1L, patch, null))
+                    .isInstanceOf(EmptyFieldException.class)
+                    .hasMessage("Поле email пустое");
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("негативный тест неизменяемое поле")
+        void patch_whenUnknownField_thenThrowInvalidPatchException() {
+            assertThatThrownBy(() -> userService.patch(1L, Map.of("version", 5), null))
+                    .isInstanceOf(InvalidPatchException.class);
+            verifyNoInteractions(userRepository);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+    private static final Supplier<Long> NOT_READ = () -> {
+        throw new AssertionError("текущая версия не должна запрашиваться");
+    };
+
+    @Test
+    @DisplayName("If-Match: отсутствует или * — подходит любая версия")
+    void expectedVersion_whenAbsentOrAny_thenNull() {
+        assertThat(ETags.expectedVersion(null, NOT_READ)).isNull();
+        assertThat(ETags.expectedVersion(" * ", NOT_READ)).isNull();
+    }
+
+    @Test
+    @DisplayName("If-Match: один сильный тег — его версия без чтения текущей")
+    void expectedVersion_whenSingleStrongTag_thenItsVersion() {
+        assertThat(ETags.expectedVersion("\"3\"", NOT_READ)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("If-Match: слабый тег не совпадает при сильном сравнении")
+    void expectedVersion_whenWeakTag_thenNoMatch() {
+        assertThat(ETags.expectedVersion("W/\"3\"", NOT_READ)).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("W/\"3\", \"4\"", NOT_READ)).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("If-Match: список тегов — совпадение с текущей версией")
+    void expectedVersion_whenList_thenCurrentIfListed() {
+        assertThat(ETags.expectedVersion("\"3\", \"4\"", () -> 4L)).isEqualTo(4L);
+        assertThat(ETags.expectedVersion("\"3\",\"4\"", () -> 5L)).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("If-None-Match: список тегов, слабые сравниваются как сильные")
+    void matches_whenListWithWeakTag_thenTrue() {
+        assertThat(ETags.matches("\"1\", W/\"2\"", 2L)).isTrue();
+        assertThat(ETags.matches("\"1\"", 2L)).isFalse();
+    }
+}
@@ -0,0 +1,99 @@
+package ru.astondevs.util;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.enums.EventType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// запуск: mvn test -Dtest=KafkaProducerProfileBenchmarkTest -Dkafka.benchmark=true
+@EmbeddedKafka(partitions = 3, topics = KafkaProducerProfileBenchmarkTest.TOPIC)
+@EnabledIfSystemProperty(named = "kafka.benchmark", matches = "true")
+class KafkaProducerProfileBenchmarkTest {
+    static final String TOPIC = "bench.user.event";
+    private static final int MESSAGES = 50_000;
+
+    @Test
+    @DisplayName("сравнение профилей продюсера на встроенном брокере")
+    void compareProfiles(EmbeddedKafkaBroker broker, TestReporter reporter) throws Exception {
+        KafkaProducerProperties kafkaDefaults = new KafkaProducerProperties();
+        kafkaDefaults.setLingerMs(0);
+        kafkaDefaults.setBatchSize(16 * 1024);
+        kafkaDefaults.setCompressionType("none");
+
+        double defaultRate = run("kafka-defaults", kafkaDefaults, broker, reporter);
+        double tunedRate = run("user-service", new KafkaProducerProperties(), broker, reporter);
+
+        reporter.publishEntry("throughput ratio user-service/kafka-defaults", String.format("%.2f", tunedRate / defaultRate));
+    }
+
+    private double run(String profile, KafkaProducerProperties properties, EmbeddedKafkaBroker broker,
+                       TestReporter reporter) throws Exception {
+        Map<String, Object> config = KafkaTestUtils.producerProps(broker);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.putAll(properties.toProducerConfig());
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+        KafkaPublishMetrics metrics = new KafkaPublishMetrics(template, properties);
+        KafkaEventPublisher publisher = new KafkaEventPublisher(template, metrics);
+        try {
+            warmUp(publisher);
+            metrics.snapshotAndReset();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> futures = new ArrayList<>(MESSAGES);
+            for (int i = 0; i < MESSAGES; i++) {
+                futures.add(publisher.send(TOPIC, String.valueOf(i), event(i)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            KafkaPublishMetrics.Snapshot snapshot = metrics.snapshotAndReset();
+            double rate = MESSAGES / seconds;
+            reporter.publishEntry(profile, String.format("%,.0f msg/s, avgLatencyMs=%.2f, maxLatencyMs=%.2f, batchFillRatio=%.2f",
+                    rate, snapshot.avgLatencyMs(), snapshot.maxLatencyMs(), snapshot.batchFillRatio()));
+            assertThat(snapshot.failed()).isZero();
+            return rate;
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void warmUp(KafkaEventPublisher publisher) throws Exception {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            futures.add(publisher.send(TOPIC, String.valueOf(i), event(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+    }
+
+    private static UserEventDto event(int i) {
+        UserEventDto event = new UserEventDto();
+        event.setId((long) i);
+        event.setName("user" + i);
+        event.setEmail("user" + i + "@mail.com");
+        event.setAge(20 + i % 50);
+        event.setRole_id(1L);
+        event.setEventType(EventType.CREATED.name());
+        return event;
+    }
+}
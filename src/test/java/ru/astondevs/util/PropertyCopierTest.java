@@ -0,0 +1,47 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.entity.Role;
+import ru.astondevs.entity.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyCopierTest {
+
+    @Test
+    @DisplayName("план копирования строится один раз на пару классов")
+    void of_thenCached() {
+        assertThat(PropertyCopier.of(User.class, UserEventDto.class))
+                .isSameAs(PropertyCopier.of(User.class, UserEventDto.class));
+    }
+
+    @Test
+    @DisplayName("copy переносит совпадающие по имени и типу свойства")
+    void copy_thenMatchingPropertiesCopied() {
+        User user = new User(5L, "user", "user@gmail.com", 18, new Role("user"));
+        UserEventDto eventDto = new UserEventDto();
+
+        PropertyCopier.of(User.class, UserEventDto.class).copy(user, eventDto);
+
+        assertThat(eventDto)
+                .extracting(UserEventDto::getId, UserEventDto::getName, UserEventDto::getEmail,
+                        UserEventDto::getAge, UserEventDto::getRole_id)
+                .containsExactly(5L, "user", "user@gmail.com", 18, null);
+    }
+
+    @Test
+    @DisplayName("copyNonNull пропускает null и игнорируемые свойства")
+    void copyNonNull_thenNullAndIgnoredSkipped() {
+        Role role = new Role("user");
+        User target = new User(9L, "old", "old@gmail.com", 20, role);
+        User source = new User(null, null, "new@gmail.com", 30, null);
+
+        PropertyCopier.of(User.class, User.class).ignoring("id").copyNonNull(source, target);
+
+        assertThat(target)
+                .extracting(User::getId, User::getName, User::getEmail, User::getAge, User::getRole)
+                .containsExactly(9L, "old", "new@gmail.com", 30, role);
+    }
+}
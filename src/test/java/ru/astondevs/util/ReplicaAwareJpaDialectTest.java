@@ -0,0 +1,124 @@
+package ru.astondevs.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaAwareJpaDialectTest {
+    private final SessionImplementor session = mock(SessionImplementor.class, RETURNS_DEEP_STUBS);
+    private final EntityManager entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.unwrap(any())).thenReturn(session);
+        when(session.getJdbcCoordinator().getLogicalConnection().getConnectionHandlingMode())
+                .thenReturn(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        when(session.getHibernateFlushMode()).thenReturn(FlushMode.AUTO);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(session.isOpen()).thenReturn(true);
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) TransactionSynchronizationManager.unbindResourceIfPossible(routing);
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("read-only транзакция на реплике читает кеш второго уровня, но не пишет в него")
+    void begin_whenReplica_thenCacheGetOnly() throws SQLException {
+        routing = routing("0/100");
+        ReplicaAwareJpaDialect dialect = new ReplicaAwareJpaDialect(() -> routing);
+
+        Object data = dialect.beginTransaction(entityManager, readOnly());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        verify(session).setCacheMode(CacheMode.GET);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+
+        dialect.cleanupTransaction(data);
+
+        verify(session).setCacheMode(CacheMode.NORMAL);
+        assertThat(TransactionSynchronizationManager.hasResource(routing)).isFalse();
+    }
+
+    @Test
+    @DisplayName("read-only транзакция на primary работает с кешем как обычно, даже если реплика догонит её в процессе")
+    void begin_whenReplicaBehind_thenPrimaryForWholeTransaction() throws SQLException {
+        routing = routing("0/100");
+        ReplicaAwareJpaDialect dialect = new ReplicaAwareJpaDialect(() -> routing);
+        ReadYourWrites.require(Lsn.parse("0/200"));
+
+        Object data = dialect.beginTransaction(entityManager, readOnly());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWrites.clear();
+
+        verify(session, never()).setCacheMode(CacheMode.GET);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        dialect.cleanupTransaction(data);
+    }
+
+    @Test
+    @DisplayName("пишущая транзакция не выбирает реплику и не меняет режим кеша")
+    void begin_whenReadWrite_thenNothingBound() throws SQLException {
+        routing = routing("0/100");
+        ReplicaAwareJpaDialect dialect = new ReplicaAwareJpaDialect(() -> routing);
+
+        Object data = dialect.beginTransaction(entityManager, new DefaultTransactionDefinition());
+
+        verify(session, never()).setCacheMode(any());
+        assertThat(TransactionSynchronizationManager.hasResource(routing)).isFalse();
+
+        dialect.cleanupTransaction(data);
+    }
+
+    private static DefaultTransactionDefinition readOnly() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+
+    private static ReplicaRoutingDataSource routing(String replayLsn) throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(replayLsn);
+
+        ReplicaMonitor monitor = new ReplicaMonitor(List.of(replica));
+        monitor.refresh();
+        return new ReplicaRoutingDataSource(mock(DataSource.class), monitor, null);
+    }
+}
@@ -0,0 +1,178 @@
+package ru.astondevs.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = mock(DataSource.class);
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(tracker);
+        RequestContextHolder.resetRequestAttributes();
+        ReadYourWrites.clear();
+    }
+
+    private final WriteLsnTracker tracker = new WriteLsnTracker(Duration.ofSeconds(30));
+
+    @Test
+    @DisplayName("LSN разбирается и форматируется в виде PostgreSQL")
+    void lsn_whenRoundTrip_thenSameText() {
+        assertThat(Lsn.parse("16/B374D848")).isEqualTo(0x16B374D848L);
+        assertThat(Lsn.format(Lsn.parse("16/B374D848"))).isEqualTo("16/B374D848");
+        assertThatThrownBy(() -> Lsn.parse("garbage")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("пишущая транзакция идёт на primary")
+    void lookup_whenReadWrite_thenPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("0/100");
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("read-only транзакция идёт на реплику")
+    void lookup_whenReadOnly_thenReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("0/100");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    @DisplayName("чтение после записи остаётся на primary, пока реплика не догонит LSN")
+    void lookup_whenReplicaBehindClientWrite_thenPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("0/100");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReadYourWrites.require(Lsn.parse("0/200"));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        ReadYourWrites.clear();
+        ReadYourWrites.require(Lsn.parse("0/100"));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    @DisplayName("недоступная реплика исключается из чтения")
+    void lookup_whenReplicaDown_thenPrimary() throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaMonitor monitor = new ReplicaMonitor(List.of(replica));
+        monitor.refresh();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, monitor, null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("монитор опрашивает реплики в своём потоке и не блокирует запуск, пока реплика не отвечает")
+    void monitor_whenReplicaHangs_thenStartDoesNotBlock() throws Exception {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        CountDownLatch polled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> pollThread = new AtomicReference<>();
+        when(replica.getConnection()).thenAnswer(invocation -> {
+            pollThread.set(Thread.currentThread().getName());
+            polled.countDown();
+            release.await();
+            throw new SQLException("connection timeout");
+        });
+        ReplicaMonitor monitor = new ReplicaMonitor(List.of(replica));
+        try {
+            monitor.start(10_000);
+
+            assertThat(monitor.pick(0)).isEqualTo(-1);
+            assertThat(polled.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(pollThread.get()).isEqualTo("replica-monitor");
+        } finally {
+            release.countDown();
+            monitor.close();
+        }
+    }
+
+    @Test
+    @DisplayName("запись вне HTTP-запроса не отслеживается и LSN не запрашивается")
+    void track_whenNoRequest_thenNoSynchronization() throws SQLException {
+        Connection connection = mock(Connection.class);
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.trackCurrentTransaction(connection);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    @DisplayName("LSN записи читается после commit на соединении транзакции и отдаётся клиенту")
+    void track_whenRequest_thenLsnFromSameConnectionAfterCommit() throws SQLException {
+        Connection connection = lsnConnection("0/3000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.trackCurrentTransaction(connection);
+        tracker.trackCurrentTransaction(connection);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(synchronizations).hasSize(1);
+        assertThat(response.getHeader(ReadYourWrites.HEADER)).isEqualTo("0/3000");
+        assertThat(ReadYourWrites.requiredLsn()).isEqualTo(Lsn.parse("0/3000"));
+        verify(primary, never()).getConnection();
+    }
+
+    private static Connection lsnConnection(String lsn) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(lsn);
+        return connection;
+    }
+
+    private ReplicaRoutingDataSource routing(String replayLsn) throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        Connection connection = lsnConnection(replayLsn);
+        when(replica.getConnection()).thenReturn(connection);
+
+        ReplicaMonitor monitor = new ReplicaMonitor(List.of(replica));
+        monitor.refresh();
+        return new ReplicaRoutingDataSource(primary, monitor, null);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecondLevelCacheConfigTest {
+    private final SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void close() {
+        if (cacheManager != null) cacheManager.close();
+    }
+
+    @Test
+    @DisplayName("регионы из настроек создаются в JCache и передаются в Hibernate")
+    void cacheManager_whenRegionsConfigured_thenCachesCreated() {
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        SecondLevelCacheProperties.Region user = new SecondLevelCacheProperties.Region();
+        user.setMaxSize(10);
+        user.setTtl(Duration.ofMinutes(1));
+        properties.getRegions().put(SecondLevelCacheProperties.USER_REGION, user);
+
+        cacheManager = config.hibernateCacheManager(properties);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        config.secondLevelCacheCustomizer(properties, cacheManager).customize(hibernateProperties);
+
+        assertThat(cacheManager.getCache(SecondLevelCacheProperties.USER_REGION)).isNotNull();
+        assertThat(hibernateProperties)
+                .containsEntry("hibernate.cache.use_second_level_cache", true)
+                .containsEntry("hibernate.cache.use_query_cache", true)
+                .containsEntry("hibernate.cache.region.factory_class", "jcache")
+                .containsEntry("hibernate.javax.cache.cache_manager", cacheManager);
+    }
+
+    @Test
+    @DisplayName("кеш можно отключить настройкой enabled")
+    void customizer_whenDisabled_thenCacheOff() {
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        properties.setEnabled(false);
+
+        cacheManager = config.hibernateCacheManager(properties);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        config.secondLevelCacheCustomizer(properties, cacheManager).customize(hibernateProperties);
+
+        assertThat(hibernateProperties)
+                .containsEntry("hibernate.cache.use_second_level_cache", false)
+                .doesNotContainKey("hibernate.cache.region.factory_class");
+    }
+}
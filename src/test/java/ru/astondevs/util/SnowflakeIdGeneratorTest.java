@@ -0,0 +1,55 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("идентификаторы строго возрастают внутри одной миллисекунды")
+    void nextId_whenSameMillisecond_thenIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> SnowflakeIdGenerator.EPOCH + 1000);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("идентификатор содержит время и номер узла")
+    void nextId_encodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, () -> SnowflakeIdGenerator.EPOCH + 42);
+
+        long id = generator.nextId();
+
+        assertThat(id >>> (SnowflakeIdGenerator.NODE_BITS + SnowflakeIdGenerator.SEQUENCE_BITS)).isEqualTo(42);
+        assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("часы ушли назад - идентификаторы продолжают расти")
+    void nextId_whenClockMovesBackwards_thenStillIncreasing() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-5_000);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("номер узла вне диапазона")
+    void constructor_whenNodeIdOutOfRange_thenThrow() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
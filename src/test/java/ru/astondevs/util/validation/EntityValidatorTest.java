@@ -0,0 +1,70 @@
+package ru.astondevs.util.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.astondevs.entity.Role;
+import ru.astondevs.entity.User;
+import ru.astondevs.errors.EmptyFieldException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityValidatorTest {
+    private final EntityValidator<User> validator = EntityValidator.forClass(User.class);
+
+    @Test
+    @DisplayName("валидатор строится один раз на класс")
+    void forClass_thenCached() {
+        assertThat(EntityValidator.forClass(User.class)).isSameAs(validator);
+    }
+
+    @Test
+    @DisplayName("корректный пользователь проходит проверку")
+    void validate_whenValid_thenNoException() {
+        assertThatCode(() -> validator.validate(new User("user", "user@gmail.com", 18, new Role("user"))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("роль обязательна")
+    void validate_whenRoleMissing_thenThrow() {
+        assertThatThrownBy(() -> validator.validate(new User("user", "user@gmail.com", 18, null)))
+                .isInstanceOf(EmptyFieldException.class)
+                .hasMessage("Поле role пустое");
+    }
+
+    @Test
+    @DisplayName("возраст должен быть положительным")
+    void validate_whenAgeNegative_thenThrow() {
+        assertThatThrownBy(() -> validator.validate(new User("user", "user@gmail.com", -1, new Role("user"))))
+                .isInstanceOf(EmptyFieldException.class)
+                .hasMessage("Поле age должно быть положительным");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"user", "@gmail.com", "user@gmail", "user@@gmail.com", "user@gmail.", "us er@gmail.com"})
+    @DisplayName("email в неверном формате")
+    void validate_whenEmailMalformed_thenThrow(String email) {
+        assertThatThrownBy(() -> validator.validate(new User("user", email, 18, new Role("user"))))
+                .isInstanceOf(EmptyFieldException.class)
+                .hasMessage("Поле email имеет неверный формат email");
+    }
+
+    @Test
+    @DisplayName("значения колонок проверяются по правилам полей, отсутствующие поля пропускаются")
+    void validateValues_checksOnlyPresentFields() {
+        assertThatCode(() -> validator.validateValues(Map.of("name", "user", "role_id", 1L)))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> validator.validateValues(Map.of("age", -5)))
+                .isInstanceOf(EmptyFieldException.class)
+                .hasMessage("Поле age должно быть положительным");
+        assertThatThrownBy(() -> validator.validateValues(Map.of("email", "user@gmail")))
+                .isInstanceOf(EmptyFieldException.class)
+                .hasMessage("Поле email имеет неверный формат email");
+    }
+}